@@ -37,6 +37,16 @@ dependencies {
     compileOnly("com.ghostchu:quickshop-bukkit:6.2.0.8")
     compileOnly("com.ghostchu:quickshop-api:6.2.0.8")
     compileOnly("com.ghostchu:simplereloadlib:1.1.2")
+
+    // Tests
+    testImplementation("io.papermc.paper:paper-api:1.21.8-R0.1-SNAPSHOT")
+    testImplementation(platform("org.junit:junit-bom:5.11.4"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+    testImplementation("org.mockito:mockito-core:5.14.2")
+    testImplementation("com.ghostchu:quickshop-bukkit:6.2.0.8")
+    testImplementation("com.ghostchu:quickshop-api:6.2.0.8")
+    testImplementation("com.ghostchu:simplereloadlib:1.1.2")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
 java {
@@ -61,6 +71,10 @@ tasks {
         archiveClassifier.set("")
     }
 
+    test {
+        useJUnitPlatform()
+    }
+
     build {
         dependsOn(publishToMavenLocal)
     }
@@ -24,13 +24,17 @@ import com.github.lukesky19.skyHoppers.command.SkyHopperCommand;
 import com.github.lukesky19.skyHoppers.database.ConnectionManager;
 import com.github.lukesky19.skyHoppers.database.DatabaseManager;
 import com.github.lukesky19.skyHoppers.database.QueueManager;
+import com.github.lukesky19.skyHoppers.hook.shop.QuickShopHook;
 import com.github.lukesky19.skyHoppers.listener.*;
 import com.github.lukesky19.skyHoppers.manager.*;
 import com.github.lukesky19.skyHoppers.task.DelayedTask;
+import com.github.lukesky19.skyHoppers.task.ParticleTask;
 import com.github.lukesky19.skylib.libs.bstats.bukkit.Metrics;
 import io.papermc.paper.plugin.lifecycle.event.types.LifecycleEvents;
 import net.kyori.adventure.text.minimessage.MiniMessage;
 import net.milkbowl.vault.economy.Economy;
+import org.bukkit.World;
+import org.bukkit.entity.Item;
 import org.bukkit.plugin.PluginManager;
 import org.bukkit.plugin.RegisteredServiceProvider;
 import org.bukkit.plugin.ServicePriority;
@@ -52,6 +56,7 @@ public final class SkyHoppers extends JavaPlugin {
     private GUIManager guiManager;
     private Economy economy;
     private QuickShop quickShop;
+    private QuickShopHook quickShopHook;
     private boolean pauseSkyHoppers = true;
 
     /**
@@ -93,6 +98,15 @@ public final class SkyHoppers extends JavaPlugin {
         return quickShop;
     }
 
+    /**
+     * Get the QuickShop hook if QuickShop is loaded, or null
+     * @return Gets the QuickShop hook if QuickShop is loaded or returns null
+     */
+    @Nullable
+    public QuickShopHook getQuickShopHook() {
+        return quickShopHook;
+    }
+
     /**
      * Plugin's startup logic
      */
@@ -108,6 +122,7 @@ public final class SkyHoppers extends JavaPlugin {
 
         if(this.getServer().getPluginManager().isPluginEnabled("QuickShop-Hikari")) {
             quickShop = ((QuickShopBukkit) QuickShopAPI.getPluginInstance()).getQuickShop();
+            quickShopHook = new QuickShopHook(this, quickShop);
         }
 
         ConnectionManager connectionManager = new ConnectionManager(this);
@@ -120,7 +135,9 @@ public final class SkyHoppers extends JavaPlugin {
         guiManager = new GUIManager(this);
         hookManager = new HookManager(this, settingsManager);
         hopperManager = new HopperManager(this, settingsManager, localeManager, databaseManager, guiManager);
-        taskManager = new TaskManager(this, hopperManager);
+        ParticleTask particleTask = new ParticleTask(hopperManager);
+        particleTask.runTaskTimer(this, 0L, 1L);
+        taskManager = new TaskManager(this, hopperManager, particleTask);
         SkyHopperCommand skyHopperCommand = new SkyHopperCommand(this, localeManager, hopperManager, settingsManager);
 
         this.getLifecycleManager().registerEventHandler(LifecycleEvents.COMMANDS, commands ->
@@ -136,8 +153,12 @@ public final class SkyHoppers extends JavaPlugin {
 
         pluginManager.registerEvents(new BlockBreakListener(this, settingsManager, localeManager, hopperManager, hookManager, hopperClickListener), this);
         pluginManager.registerEvents(new HopperPlaceListener(localeManager, hopperManager, hookManager), this);
-        pluginManager.registerEvents(new HopperPickupItemListener(this, hopperManager), this);
+        pluginManager.registerEvents(new HopperPickupItemListener(this, hopperManager, particleTask), this);
         pluginManager.registerEvents(new ChunkLoadListener(hopperManager), this);
+        pluginManager.registerEvents(new ChunkUnloadListener(hopperManager), this);
+        pluginManager.registerEvents(new LinkedContainerChangeListener(hopperManager), this);
+        pluginManager.registerEvents(new ItemEntityListener(hopperManager.getItemEntityIndex()), this);
+        if(quickShopHook != null) pluginManager.registerEvents(new QuickShopListener(quickShopHook), this);
 
         DelayedTask delayedTask = new DelayedTask(this, hopperManager);
         delayedTask.runTaskTimer(this, 0L, 1L);
@@ -146,6 +167,11 @@ public final class SkyHoppers extends JavaPlugin {
         pluginManager.registerEvents(hopperClickListener, this);
         pluginManager.registerEvents(new InventoryListener(guiManager), this);
 
+        // Index the items that were already loaded before the listener was registered
+        for(World world : this.getServer().getWorlds()) {
+            world.getEntitiesByClass(Item.class).forEach(hopperManager.getItemEntityIndex()::add);
+        }
+
         // Register API
         SkyHoppersAPI skyHoppersAPI = new SkyHoppersAPI(hopperManager);
         this.getServer().getServicesManager().register(SkyHoppersAPI.class, skyHoppersAPI, this, ServicePriority.Lowest);
@@ -160,7 +186,12 @@ public final class SkyHoppers extends JavaPlugin {
     public void onDisable() {
         this.getServer().getScheduler().cancelTasks(this);
 
+        // Refresh any shop signs that were still queued
+        if(quickShopHook != null) quickShopHook.updateSigns();
+
         guiManager.closeOpenGUIs(true);
+
+        hopperManager.unlockVanillaHoppers();
     }
 
     /**
@@ -26,6 +26,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -195,4 +196,13 @@ public class SkyHoppersAPI {
     public boolean isItemStackSkyHopper(@NotNull ItemStack itemStack) {
         return hopperManager.isItemStackSkyHopper(itemStack);
     }
+
+    /**
+     * Get the loaded SkyHoppers that are linked to the container at the given {@link Location}.
+     * @param location The {@link Location} of the container.
+     * @return An unmodifiable {@link Set} of {@link SkyHopper}s. Empty if no loaded SkyHoppers are linked to the container.
+     */
+    public @NotNull Set<@NotNull SkyHopper> getSkyHoppersLinkedTo(@NotNull Location location) {
+        return hopperManager.getSkyHoppersLinkedTo(location);
+    }
 }
@@ -0,0 +1,110 @@
+/*
+    SkyHoppers adds upgradable hoppers that can suction items, transfer items wirelessly to linked containers.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyHoppers.data;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * An immutable block position used as a key for SkyHoppers, linked containers, and open GUIs.
+ * Unlike a {@link Location}, it only hashes the world's {@link UUID} and the block coordinates.
+ * @param worldId The {@link UUID} of the {@link World} the block is in.
+ * @param x The block x coordinate.
+ * @param y The block y coordinate.
+ * @param z The block z coordinate.
+ */
+public record BlockLocation(@NotNull UUID worldId, int x, int y, int z) {
+    /**
+     * Get the {@link BlockLocation} of a {@link Location}.
+     * @param location The {@link Location}. Its {@link World} must not be null.
+     * @return The {@link BlockLocation} of the block at the {@link Location}.
+     */
+    public static @NotNull BlockLocation of(@NotNull Location location) {
+        return new BlockLocation(location.getWorld().getUID(), location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+
+    /**
+     * Get the {@link BlockLocation} of a {@link Block}.
+     * @param block The {@link Block}.
+     * @return The {@link BlockLocation} of the {@link Block}.
+     */
+    public static @NotNull BlockLocation of(@NotNull Block block) {
+        return new BlockLocation(block.getWorld().getUID(), block.getX(), block.getY(), block.getZ());
+    }
+
+    /**
+     * Get the {@link BlockLocation} of a {@link BlockState}.
+     * @param blockState The {@link BlockState}.
+     * @return The {@link BlockLocation} of the {@link BlockState}'s block.
+     */
+    public static @NotNull BlockLocation of(@NotNull BlockState blockState) {
+        return new BlockLocation(blockState.getWorld().getUID(), blockState.getX(), blockState.getY(), blockState.getZ());
+    }
+
+    /**
+     * Get the {@link World} the block is in.
+     * @return The {@link World} or null if the {@link World} is not loaded.
+     */
+    public @Nullable World getWorld() {
+        return Bukkit.getWorld(worldId);
+    }
+
+    /**
+     * Get the {@link Block} at this {@link BlockLocation}.
+     * @return The {@link Block} or null if the {@link World} is not loaded.
+     */
+    public @Nullable Block getBlock() {
+        World world = getWorld();
+        if(world == null) return null;
+
+        return world.getBlockAt(x, y, z);
+    }
+
+    /**
+     * Get the packed key of the chunk the block is in, as returned by {@link Chunk#getChunkKey()}.
+     * @return The chunk key.
+     */
+    public long getChunkKey() {
+        return Chunk.getChunkKey(x >> 4, z >> 4);
+    }
+
+    /**
+     * Checks if the chunk the block is in is loaded without loading it.
+     * @return true if the chunk is loaded, otherwise false.
+     */
+    public boolean isChunkLoaded() {
+        World world = getWorld();
+        return world != null && world.isChunkLoaded(x >> 4, z >> 4);
+    }
+
+    /**
+     * Creates a new {@link Location} for this {@link BlockLocation}.
+     * @return A new {@link Location}. The {@link World} will be null if it is not loaded.
+     */
+    public @NotNull Location toLocation() {
+        return new Location(getWorld(), x, y, z);
+    }
+}
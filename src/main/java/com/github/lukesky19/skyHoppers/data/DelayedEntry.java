@@ -17,7 +17,6 @@
 */
 package com.github.lukesky19.skyHoppers.data;
 
-import org.bukkit.Location;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -28,7 +27,7 @@ import org.jetbrains.annotations.NotNull;
  * @param initiatorIsSource Whether the source container initiated the transfer or not.
  */
 public record DelayedEntry(
-        @NotNull Location sourceLocation,
-        @NotNull Location destinationLocation,
+        @NotNull BlockLocation sourceLocation,
+        @NotNull BlockLocation destinationLocation,
         boolean isSuction,
         boolean initiatorIsSource) {}
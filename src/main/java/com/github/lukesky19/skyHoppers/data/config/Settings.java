@@ -34,6 +34,7 @@ import java.util.Map;
  * @param disabledHooks A list of disabled hooks.
  * @param skyHopperConfig The configuration for the SkyHopper ItemStack and starting upgrades.
  * @param upgrades The configuration for the SkyHopper upgrades.
+ * @param performance The performance configuration. Defaults are used if not configured.
  */
 @ConfigSerializable
 public record Settings(
@@ -42,7 +43,8 @@ public record Settings(
         boolean dropToInventory,
         @NotNull List<String> disabledHooks,
         @NotNull SkyHopperConfig skyHopperConfig,
-        @NotNull Upgrades upgrades) {
+        @NotNull Upgrades upgrades,
+        @Nullable Performance performance) {
 
     /**
      * The configuration for the SkyHopper ItemStack.
@@ -132,4 +134,15 @@ public record Settings(
      */
     @ConfigSerializable
     public record Containers(Map<Integer, Double> upgrades) {}
+
+    /**
+     * The performance configuration.
+     * @param lockVanillaHoppers Should vanilla hopper ticking be stopped for SkyHoppers so only SkyHoppers move items?
+     * @param maxCatchUpIntervals The maximum number of missed transfer or suction intervals a SkyHopper can catch up on at once when the server lags.
+     * @param pushSuction Should suction only run for SkyHoppers that items have been dropped near instead of every SkyHopper searching for items?
+     * @param particleViewDistance The distance in blocks players must be within to see SkyHopper suction particles.
+     * @param maxParticleEffectsPerTick The maximum number of SkyHopper suction effects sent each tick.
+     */
+    @ConfigSerializable
+    public record Performance(boolean lockVanillaHoppers, int maxCatchUpIntervals, boolean pushSuction, int particleViewDistance, int maxParticleEffectsPerTick) {}
 }
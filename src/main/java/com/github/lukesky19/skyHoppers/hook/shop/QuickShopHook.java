@@ -0,0 +1,139 @@
+/*
+    SkyHoppers adds upgradable hoppers that can suction items, transfer items wirelessly to linked containers.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyHoppers.hook.shop;
+
+import com.ghostchu.quickshop.QuickShop;
+import com.ghostchu.quickshop.api.shop.Shop;
+import com.github.lukesky19.skyHoppers.SkyHoppers;
+import com.github.lukesky19.skyHoppers.data.BlockLocation;
+import org.bukkit.block.Container;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * This class handles hooking into QuickShop-Hikari.
+ * Shop lookups are cached per container position, including positions that are not shops, so transfers don't query QuickShop repeatedly.
+ * Shop signs changed by transfers are queued and each sign is refreshed once on the next tick.
+ */
+public class QuickShopHook {
+    private final @NotNull SkyHoppers plugin;
+    private final @NotNull QuickShop quickShop;
+    private final @NotNull Set<@NotNull Shop> dirtyShops = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final @NotNull Map<@NotNull UUID, @NotNull Map<@NotNull Long, @NotNull Map<@NotNull BlockLocation, @NotNull Optional<Shop>>>> shopsByChunk = new HashMap<>();
+    private boolean signUpdateScheduled = false;
+
+    /**
+     * Constructor
+     * @param plugin The SkyHoppers Plugin.
+     * @param quickShop The QuickShop instance.
+     */
+    public QuickShopHook(@NotNull SkyHoppers plugin, @NotNull QuickShop quickShop) {
+        this.plugin = plugin;
+        this.quickShop = quickShop;
+    }
+
+    /**
+     * Queues a refresh of the sign of the shop at a {@link Container}, if the {@link Container} is a shop.
+     * @param container The {@link Container} whose contents changed.
+     */
+    public void queueSignUpdate(@NotNull Container container) {
+        Shop shop = getShop(container);
+        if(shop == null) return;
+
+        dirtyShops.add(shop);
+
+        if(!signUpdateScheduled) {
+            signUpdateScheduled = true;
+            plugin.getServer().getScheduler().runTask(plugin, this::updateSigns);
+        }
+    }
+
+    /**
+     * Refreshes the signs of all queued shops.
+     */
+    public void updateSigns() {
+        signUpdateScheduled = false;
+        if(dirtyShops.isEmpty()) return;
+
+        List<Shop> shops = new ArrayList<>(dirtyShops);
+        dirtyShops.clear();
+
+        for(Shop shop : shops) {
+            shop.setSignText(quickShop.text().findRelativeLanguages(shop.getOwner(), false));
+        }
+    }
+
+    /**
+     * Forgets the cached shop at a {@link BlockLocation}.
+     * Called when the block at that {@link BlockLocation} changes.
+     * @param location The {@link BlockLocation} of the block that changed.
+     */
+    public void invalidate(@NotNull BlockLocation location) {
+        Map<Long, Map<BlockLocation, Optional<Shop>>> worldChunks = shopsByChunk.get(location.worldId());
+        if(worldChunks == null) return;
+
+        Map<BlockLocation, Optional<Shop>> chunkShops = worldChunks.get(location.getChunkKey());
+        if(chunkShops == null) return;
+
+        chunkShops.remove(location);
+        if(chunkShops.isEmpty()) worldChunks.remove(location.getChunkKey());
+    }
+
+    /**
+     * Forgets the cached shops in a chunk.
+     * @param worldId The {@link UUID} of the chunk's world.
+     * @param chunkKey The chunk key of the chunk.
+     */
+    public void invalidateChunk(@NotNull UUID worldId, long chunkKey) {
+        Map<Long, Map<BlockLocation, Optional<Shop>>> worldChunks = shopsByChunk.get(worldId);
+        if(worldChunks == null) return;
+
+        worldChunks.remove(chunkKey);
+    }
+
+    /**
+     * Forgets all cached shops.
+     * Called when a shop is created or deleted, since it can change the result for the containers attached to it.
+     */
+    public void handleShopChanged() {
+        shopsByChunk.clear();
+    }
+
+    /**
+     * Get the shop at a {@link Container}, including shops attached to it.
+     * The result is cached until the block or a shop changes.
+     * @param container The {@link Container}.
+     * @return The {@link Shop} or null if the {@link Container} is not a shop.
+     */
+    private @Nullable Shop getShop(@NotNull Container container) {
+        BlockLocation location = BlockLocation.of(container);
+
+        Map<BlockLocation, Optional<Shop>> chunkShops = shopsByChunk.computeIfAbsent(location.worldId(), worldId -> new HashMap<>())
+                .computeIfAbsent(location.getChunkKey(), chunkKey -> new HashMap<>());
+
+        Optional<Shop> shop = chunkShops.get(location);
+        if(shop == null) {
+            shop = Optional.ofNullable(quickShop.getShopManager().getShopIncludeAttached(container.getLocation()));
+            chunkShops.put(location, shop);
+        }
+
+        return shop.orElse(null);
+    }
+}
@@ -0,0 +1,147 @@
+/*
+    SkyHoppers adds upgradable hoppers that can suction items, transfer items wirelessly to linked containers.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyHoppers.hopper;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * An immutable snapshot of a {@link FilterType} and its filter items that decides the {@link FilterAction} for an {@link ItemType}.
+ * An empty filter accepts every item, except for an empty {@link FilterType#WHITELIST} which accepts nothing.
+ * An empty {@link FilterType#BLACKLIST} accepts nothing when compiled for suction, pickup, and linked container transfers.
+ */
+public final class CompiledFilter {
+    private static final @NotNull CompiledFilter ACCEPT_ALL = new CompiledFilter(new BitSet(), Set.of(), FilterAction.ACCEPT, FilterAction.ACCEPT);
+    private static final @NotNull CompiledFilter REJECT_ALL = new CompiledFilter(new BitSet(), Set.of(), FilterAction.REJECT, FilterAction.REJECT);
+
+    private final @NotNull BitSet materials;
+    private final @NotNull Set<@NotNull ItemType> itemTypes;
+    private final @NotNull FilterAction matchAction;
+    private final @NotNull FilterAction missAction;
+
+    /**
+     * Constructor
+     * @param materials The {@link Material} ordinals of the filter items.
+     * @param itemTypes The filter items that have no {@link Material}.
+     * @param matchAction The {@link FilterAction} for items in the filter.
+     * @param missAction The {@link FilterAction} for items not in the filter.
+     */
+    private CompiledFilter(@NotNull BitSet materials, @NotNull Set<@NotNull ItemType> itemTypes, @NotNull FilterAction matchAction, @NotNull FilterAction missAction) {
+        this.materials = materials;
+        this.itemTypes = itemTypes;
+        this.matchAction = matchAction;
+        this.missAction = missAction;
+    }
+
+    /**
+     * Compiles a {@link FilterType} and its filter items into a {@link CompiledFilter}.
+     * @param filterType The {@link FilterType}.
+     * @param itemFilter The {@link ItemFilter} containing the filter items.
+     * @param emptyBlacklistAccepts true if an empty {@link FilterType#BLACKLIST} accepts every item, false if it accepts nothing.
+     * @return A {@link CompiledFilter}.
+     */
+    public static @NotNull CompiledFilter compile(@NotNull FilterType filterType, @NotNull ItemFilter itemFilter, boolean emptyBlacklistAccepts) {
+        if(itemFilter.isEmpty()) {
+            return switch(filterType) {
+                case WHITELIST -> REJECT_ALL;
+                case BLACKLIST -> emptyBlacklistAccepts ? ACCEPT_ALL : REJECT_ALL;
+                default -> ACCEPT_ALL;
+            };
+        }
+
+        FilterAction matchAction;
+        FilterAction missAction;
+        switch(filterType) {
+            case WHITELIST -> {
+                matchAction = FilterAction.ACCEPT;
+                missAction = FilterAction.REJECT;
+            }
+
+            case BLACKLIST -> {
+                matchAction = FilterAction.REJECT;
+                missAction = FilterAction.ACCEPT;
+            }
+
+            case DESTROY -> {
+                matchAction = FilterAction.DESTROY;
+                missAction = FilterAction.ACCEPT;
+            }
+
+            default -> {
+                return ACCEPT_ALL;
+            }
+        }
+
+        BitSet materials = new BitSet();
+        Set<ItemType> itemTypes = new HashSet<>();
+        for(ItemType itemType : itemFilter.asList()) {
+            Material material = itemType.asMaterial();
+            if(material != null) {
+                materials.set(material.ordinal());
+            } else {
+                itemTypes.add(itemType);
+            }
+        }
+
+        return new CompiledFilter(materials, itemTypes.isEmpty() ? Set.of() : Set.copyOf(itemTypes), matchAction, missAction);
+    }
+
+    /**
+     * Get the {@link FilterAction} for an {@link ItemType}.
+     * @param itemType The {@link ItemType} to check.
+     * @return The {@link FilterAction} for the {@link ItemType}.
+     */
+    public @NotNull FilterAction getAction(@NotNull ItemType itemType) {
+        if(matchAction == missAction) return matchAction;
+
+        return matches(itemType) ? matchAction : missAction;
+    }
+
+    /**
+     * Checks if the filter accepts at least one {@link ItemType}.
+     * @return true if any {@link ItemType} can be accepted, otherwise false.
+     */
+    public boolean acceptsAny() {
+        return matchAction == FilterAction.ACCEPT || missAction == FilterAction.ACCEPT;
+    }
+
+    /**
+     * Checks if the filter destroys at least one {@link ItemType}.
+     * @return true if any {@link ItemType} is destroyed, otherwise false.
+     */
+    public boolean destroysAny() {
+        return matchAction == FilterAction.DESTROY || missAction == FilterAction.DESTROY;
+    }
+
+    /**
+     * Checks if an {@link ItemType} is in the filter.
+     * @param itemType The {@link ItemType} to check.
+     * @return true if the {@link ItemType} is in the filter, otherwise false.
+     */
+    private boolean matches(@NotNull ItemType itemType) {
+        Material material = itemType.asMaterial();
+        if(material == null) return itemTypes.contains(itemType);
+
+        return materials.get(material.ordinal());
+    }
+}
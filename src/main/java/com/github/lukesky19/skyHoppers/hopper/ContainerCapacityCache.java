@@ -0,0 +1,174 @@
+/*
+    SkyHoppers adds upgradable hoppers that can suction items, transfer items wirelessly to linked containers.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyHoppers.hopper;
+
+import com.github.lukesky19.skyHoppers.data.BlockLocation;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers which linked containers were found full, or without room for an item, so they can be skipped without scanning their inventory.
+ * Rejected items are matched with {@link ItemStack#isSimilar(ItemStack)}, since an item with different meta can still stack into a partial slot.
+ * An entry is dropped when the container is drained or changed, and expires after {@link #EXPIRY_MS} in case a change was not seen.
+ */
+public class ContainerCapacityCache {
+    /**
+     * How long in milliseconds a container is remembered as full or without room for an item.
+     */
+    public static final long EXPIRY_MS = 5000L;
+
+    private final @NotNull Map<@NotNull BlockLocation, @NotNull Entry> entries = new HashMap<>();
+
+    /**
+     * Checks if the container at the given {@link BlockLocation} is known to be full.
+     * @param location The {@link BlockLocation} of the container.
+     * @param time The current time in milliseconds.
+     * @return true if the container is known to be full, otherwise false.
+     */
+    public boolean isKnownFull(@NotNull BlockLocation location, long time) {
+        Entry entry = getEntry(location, time);
+        return entry != null && entry.full;
+    }
+
+    /**
+     * Checks if the container at the given {@link BlockLocation} is known to have no room for an {@link ItemStack}.
+     * @param location The {@link BlockLocation} of the container.
+     * @param itemStack The {@link ItemStack} to check.
+     * @param time The current time in milliseconds.
+     * @return true if the container is known to be full or have no room for an item similar to the {@link ItemStack}, otherwise false.
+     */
+    public boolean isKnownRejected(@NotNull BlockLocation location, @NotNull ItemStack itemStack, long time) {
+        Entry entry = getEntry(location, time);
+        if(entry == null) return false;
+        if(entry.full) return true;
+
+        for(ItemStack rejectedItem : entry.rejectedItems) {
+            if(rejectedItem.isSimilar(itemStack)) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Remembers that the container at the given {@link BlockLocation} is full.
+     * @param location The {@link BlockLocation} of the container.
+     * @param time The current time in milliseconds.
+     */
+    public void markFull(@NotNull BlockLocation location, long time) {
+        Entry entry = getOrCreateEntry(location, time);
+        entry.full = true;
+    }
+
+    /**
+     * Remembers that the container at the given {@link BlockLocation} has no room for an {@link ItemStack} or any item similar to it.
+     * @param location The {@link BlockLocation} of the container.
+     * @param itemStack The {@link ItemStack} that didn't fit.
+     * @param time The current time in milliseconds.
+     */
+    public void markRejected(@NotNull BlockLocation location, @NotNull ItemStack itemStack, long time) {
+        if(isKnownRejected(location, itemStack, time)) return;
+
+        Entry entry = getOrCreateEntry(location, time);
+        entry.rejectedItems.add(itemStack.asOne());
+    }
+
+    /**
+     * Forgets what is known about the container at the given {@link BlockLocation}.
+     * Called when items are removed from the container or its contents change in some other way.
+     * @param location The {@link BlockLocation} of the container.
+     */
+    public void invalidate(@NotNull BlockLocation location) {
+        if(entries.isEmpty()) return;
+
+        entries.remove(location);
+    }
+
+    /**
+     * Checks if nothing is known about any container.
+     * @return true if no containers are remembered, otherwise false.
+     */
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * Forgets what is known about all containers.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Get the unexpired {@link Entry} for a container.
+     * @param location The {@link BlockLocation} of the container.
+     * @param time The current time in milliseconds.
+     * @return The {@link Entry} or null if there is no unexpired {@link Entry}.
+     */
+    private @Nullable Entry getEntry(@NotNull BlockLocation location, long time) {
+        if(entries.isEmpty()) return null;
+
+        Entry entry = entries.get(location);
+        if(entry == null) return null;
+
+        if(entry.expiryTime <= time) {
+            entries.remove(location);
+            return null;
+        }
+
+        return entry;
+    }
+
+    /**
+     * Get the unexpired {@link Entry} for a container, creating one if needed.
+     * @param location The {@link BlockLocation} of the container.
+     * @param time The current time in milliseconds.
+     * @return The {@link Entry}.
+     */
+    private @NotNull Entry getOrCreateEntry(@NotNull BlockLocation location, long time) {
+        Entry entry = getEntry(location, time);
+        if(entry == null) {
+            entry = new Entry(time + EXPIRY_MS);
+            entries.put(location, entry);
+        }
+
+        return entry;
+    }
+
+    /**
+     * What is known about a container until the expiry time.
+     */
+    private static class Entry {
+        private final long expiryTime;
+        private boolean full;
+        private final @NotNull List<@NotNull ItemStack> rejectedItems = new ArrayList<>();
+
+        /**
+         * Constructor
+         * @param expiryTime The time in milliseconds when the {@link Entry} expires.
+         */
+        private Entry(long expiryTime) {
+            this.expiryTime = expiryTime;
+        }
+    }
+}
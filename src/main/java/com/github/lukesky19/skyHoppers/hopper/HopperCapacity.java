@@ -0,0 +1,156 @@
+/*
+    SkyHoppers adds upgradable hoppers that can suction items, transfer items wirelessly to linked containers.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyHoppers.hopper;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A snapshot of the free space in a SkyHopper's inventory.
+ * Records how many slots are empty and how much room each stack that isn't full has left, so suction can tell which items could fit without scanning the inventory for each item.
+ * The inventory's contents are read once when the snapshot is taken. Space taken with {@link #reserve(ItemStack, int)} is deducted, so later checks see what is left.
+ */
+public final class HopperCapacity {
+    private int emptySlots;
+    private final @NotNull Set<@NotNull Material> partialMaterials;
+    private final @NotNull List<@NotNull PartialStack> partialStacks;
+
+    /**
+     * Constructor
+     * @param emptySlots The number of empty slots in the {@link Inventory}.
+     * @param partialMaterials The {@link Material}s with a stack that isn't full.
+     * @param partialStacks The stacks that aren't full.
+     */
+    private HopperCapacity(int emptySlots, @NotNull Set<@NotNull Material> partialMaterials, @NotNull List<@NotNull PartialStack> partialStacks) {
+        this.emptySlots = emptySlots;
+        this.partialMaterials = partialMaterials;
+        this.partialStacks = partialStacks;
+    }
+
+    /**
+     * Takes a snapshot of the free space in an {@link Inventory}.
+     * @param inventory The {@link Inventory}.
+     * @return A {@link HopperCapacity}.
+     */
+    public static @NotNull HopperCapacity of(@NotNull Inventory inventory) {
+        int emptySlots = 0;
+        Set<Material> partialMaterials = EnumSet.noneOf(Material.class);
+        List<PartialStack> partialStacks = new ArrayList<>();
+
+        for(ItemStack itemStack : inventory.getContents()) {
+            if(itemStack == null || itemStack.isEmpty()) {
+                emptySlots++;
+            } else if(itemStack.getAmount() < itemStack.getMaxStackSize()) {
+                partialMaterials.add(itemStack.getType());
+                partialStacks.add(new PartialStack(itemStack, itemStack.getMaxStackSize() - itemStack.getAmount()));
+            }
+        }
+
+        return new HopperCapacity(emptySlots, partialMaterials, partialStacks);
+    }
+
+    /**
+     * Checks if nothing more can be added to the {@link Inventory}.
+     * @return true if there are no empty slots and every stack is full, otherwise false.
+     */
+    public boolean isFull() {
+        return emptySlots == 0 && partialStacks.isEmpty();
+    }
+
+    /**
+     * Checks if at least one of an {@link ItemStack} can be added to the {@link Inventory}.
+     * Only the stacks that have room left are compared, and only if one has the same {@link Material}.
+     * @param itemStack The {@link ItemStack} to check.
+     * @return true if the {@link ItemStack} fits, otherwise false.
+     */
+    public boolean canFit(@NotNull ItemStack itemStack) {
+        if(emptySlots > 0) return true;
+        if(!partialMaterials.contains(itemStack.getType())) return false;
+
+        for(PartialStack partialStack : partialStacks) {
+            if(partialStack.itemStack.isSimilar(itemStack)) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Reserves space for up to the given amount of an {@link ItemStack}, so it is no longer free for other items.
+     * Similar stacks that aren't full are used before empty slots, the same way the items are added.
+     * @param itemStack The {@link ItemStack} to reserve space for.
+     * @param amount The amount to reserve space for.
+     * @return The amount space was reserved for.
+     */
+    public int reserve(@NotNull ItemStack itemStack, int amount) {
+        int reserved = 0;
+
+        if(partialMaterials.contains(itemStack.getType())) {
+            Iterator<PartialStack> iterator = partialStacks.iterator();
+            while(iterator.hasNext() && reserved < amount) {
+                PartialStack partialStack = iterator.next();
+                if(!partialStack.itemStack.isSimilar(itemStack)) continue;
+
+                int added = Math.min(partialStack.room, amount - reserved);
+                partialStack.room -= added;
+                reserved += added;
+
+                if(partialStack.room <= 0) iterator.remove();
+            }
+        }
+
+        int maxSize = itemStack.getMaxStackSize();
+        while(reserved < amount && emptySlots > 0) {
+            int added = Math.min(maxSize, amount - reserved);
+            emptySlots--;
+            reserved += added;
+
+            if(added < maxSize) {
+                partialMaterials.add(itemStack.getType());
+                partialStacks.add(new PartialStack(itemStack, maxSize - added));
+            }
+        }
+
+        return reserved;
+    }
+
+    /**
+     * A stack that isn't full and how much room it has left.
+     */
+    private static final class PartialStack {
+        private final @NotNull ItemStack itemStack;
+        private int room;
+
+        /**
+         * Constructor
+         * @param itemStack The {@link ItemStack} in the slot.
+         * @param room How many more items fit in the slot.
+         */
+        private PartialStack(@NotNull ItemStack itemStack, int room) {
+            this.itemStack = itemStack;
+            this.room = room;
+        }
+    }
+}
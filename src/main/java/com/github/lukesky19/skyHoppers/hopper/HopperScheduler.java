@@ -0,0 +1,170 @@
+/*
+    SkyHoppers adds upgradable hoppers that can suction items, transfer items wirelessly to linked containers.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyHoppers.hopper;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Keeps {@link SkyHopper}s ordered by the time they are next due, so a task only visits the {@link SkyHopper}s that have work to do.
+ * Rescheduling a {@link SkyHopper} does not search the queue, the older entry is skipped when it reaches the head of the queue.
+ */
+public class HopperScheduler {
+    /**
+     * The length of a server tick in milliseconds. The tasks run once per tick, so shorter intervals are caught up on as one tick.
+     */
+    public static final long TICK_MS = 50L;
+
+    private final @NotNull PriorityQueue<@NotNull Entry> queue = new PriorityQueue<>(Comparator.comparingLong(Entry::dueTime));
+    private final @NotNull Map<@NotNull SkyHopper, @NotNull Long> dueTimes = new HashMap<>();
+    private long polledDueTime = 0L;
+
+    /**
+     * Schedules a {@link SkyHopper} to be due at the given time, replacing any time it was previously scheduled for.
+     * @param skyHopper The {@link SkyHopper} to schedule.
+     * @param dueTime The time in milliseconds when the {@link SkyHopper} is due.
+     */
+    public void schedule(@NotNull SkyHopper skyHopper, long dueTime) {
+        Long previousDueTime = dueTimes.put(skyHopper, dueTime);
+        if(previousDueTime != null && previousDueTime == dueTime) return;
+
+        queue.add(new Entry(dueTime, skyHopper));
+
+        // Drop replaced entries once they outnumber the scheduled SkyHoppers
+        if(queue.size() > (dueTimes.size() * 2) + 64) {
+            queue.removeIf(entry -> !isCurrent(entry));
+        }
+    }
+
+    /**
+     * Removes a {@link SkyHopper} from the schedule.
+     * @param skyHopper The {@link SkyHopper} to remove.
+     */
+    public void unschedule(@NotNull SkyHopper skyHopper) {
+        dueTimes.remove(skyHopper);
+    }
+
+    /**
+     * Checks if a {@link SkyHopper} is scheduled.
+     * @param skyHopper The {@link SkyHopper} to check.
+     * @return true if the {@link SkyHopper} is scheduled, otherwise false.
+     */
+    public boolean isScheduled(@NotNull SkyHopper skyHopper) {
+        return dueTimes.containsKey(skyHopper);
+    }
+
+    /**
+     * Removes and returns the next {@link SkyHopper} that is due at or before the given time.
+     * The {@link SkyHopper} must be scheduled again to be returned by this method again.
+     * @param time The current time in milliseconds.
+     * @return The next due {@link SkyHopper} or null if no {@link SkyHopper} is due.
+     */
+    public @Nullable SkyHopper poll(long time) {
+        while(!queue.isEmpty()) {
+            Entry entry = queue.peek();
+            if(entry.dueTime() > time) return null;
+
+            queue.poll();
+
+            // Skip entries that were rescheduled or unscheduled
+            if(!isCurrent(entry)) continue;
+
+            dueTimes.remove(entry.skyHopper());
+            polledDueTime = entry.dueTime();
+
+            return entry.skyHopper();
+        }
+
+        return null;
+    }
+
+    /**
+     * Get the time the {@link SkyHopper} last returned by {@link #poll(long)} was due.
+     * @return The time in milliseconds the last polled {@link SkyHopper} was due.
+     */
+    public long getPolledDueTime() {
+        return polledDueTime;
+    }
+
+    /**
+     * Removes all {@link SkyHopper}s from the schedule.
+     */
+    public void clear() {
+        queue.clear();
+        dueTimes.clear();
+    }
+
+    /**
+     * Get the number of {@link SkyHopper}s that are scheduled.
+     * @return The number of {@link SkyHopper}s that are scheduled.
+     */
+    public int size() {
+        return dueTimes.size();
+    }
+
+    /**
+     * Get the number of intervals that have passed since a {@link SkyHopper} was due, including the interval that made it due.
+     * Intervals shorter than {@link #TICK_MS} count as one tick, so a fast {@link SkyHopper} doesn't catch up on every tick.
+     * @param dueTime The time in milliseconds when the {@link SkyHopper} was due.
+     * @param time The current time in milliseconds.
+     * @param intervalMs The {@link SkyHopper}'s interval in milliseconds.
+     * @param maxIntervals The maximum number of intervals to return.
+     * @return The number of intervals, between 1 and maxIntervals.
+     */
+    public static int getElapsedIntervals(long dueTime, long time, long intervalMs, int maxIntervals) {
+        if(intervalMs <= 0 || time <= dueTime) return 1;
+
+        long intervals = 1 + ((time - dueTime) / Math.max(intervalMs, TICK_MS));
+        return (int) Math.max(1, Math.min(intervals, maxIntervals));
+    }
+
+    /**
+     * Get the time a {@link SkyHopper} is next due after it handled some intervals.
+     * The next time follows on from the time it was due so lag doesn't shift its timing, unless it fell further behind than it could catch up on.
+     * @param dueTime The time in milliseconds when the {@link SkyHopper} was due.
+     * @param time The current time in milliseconds.
+     * @param intervalMs The {@link SkyHopper}'s interval in milliseconds.
+     * @param intervals The number of intervals that were handled.
+     * @return The time in milliseconds when the {@link SkyHopper} is next due.
+     */
+    public static long getNextDueTime(long dueTime, long time, long intervalMs, int intervals) {
+        long nextDueTime = dueTime + (intervalMs * intervals);
+        if(nextDueTime <= time) return time + intervalMs;
+
+        return nextDueTime;
+    }
+
+    /**
+     * Checks if an {@link Entry} still matches the time its {@link SkyHopper} is scheduled for.
+     * @param entry The {@link Entry} to check.
+     * @return true if the {@link Entry} is current, otherwise false.
+     */
+    private boolean isCurrent(@NotNull Entry entry) {
+        Long dueTime = dueTimes.get(entry.skyHopper());
+        return dueTime != null && dueTime == entry.dueTime();
+    }
+
+    /**
+     * A queued {@link SkyHopper} and the time it was scheduled for.
+     * @param dueTime The time in milliseconds when the {@link SkyHopper} is due.
+     * @param skyHopper The {@link SkyHopper}.
+     */
+    private record Entry(long dueTime, @NotNull SkyHopper skyHopper) {}
+}
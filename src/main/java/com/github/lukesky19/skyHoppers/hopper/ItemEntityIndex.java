@@ -0,0 +1,204 @@
+/*
+    SkyHoppers adds upgradable hoppers that can suction items, transfer items wirelessly to linked containers.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyHoppers.hopper;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Item;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Groups the loaded {@link Item} entities by world and chunk section, so suction only has to look at the items near its range.
+ * Items are added and removed as they enter and leave a world, but their section is only updated by {@link #refreshIfStale(long)},
+ * at most once every {@link #REFRESH_INTERVAL_MS}. An item can be in a neighbouring section by then, so searches also visit the sections next to their range.
+ * The {@link SuctionRangeIndex} is told whenever an item enters a section.
+ */
+public class ItemEntityIndex {
+    /**
+     * How often in milliseconds indexed items are moved to the section they are currently in.
+     */
+    public static final long REFRESH_INTERVAL_MS = 1000L;
+
+    private final @NotNull Map<@NotNull UUID, @NotNull Map<@NotNull Long, @NotNull Bucket>> bucketsBySection = new HashMap<>();
+    private final @NotNull Map<@NotNull Item, @NotNull Bucket> itemBuckets = new HashMap<>();
+    private final @NotNull Location scratchLocation = new Location(null, 0, 0, 0);
+    private final @NotNull SuctionRangeIndex suctionRangeIndex;
+    private long lastRefreshTime = 0L;
+
+    /**
+     * Constructor
+     * @param suctionRangeIndex The {@link SuctionRangeIndex} to tell when an item enters a section.
+     */
+    public ItemEntityIndex(@NotNull SuctionRangeIndex suctionRangeIndex) {
+        this.suctionRangeIndex = suctionRangeIndex;
+    }
+
+    /**
+     * Adds an {@link Item} to the index, or moves it to its current section if it is already indexed.
+     * @param item The {@link Item} to add.
+     */
+    public void add(@NotNull Item item) {
+        item.getLocation(scratchLocation);
+        World world = scratchLocation.getWorld();
+        if(world == null) return;
+
+        UUID worldId = world.getUID();
+        long sectionKey = getSectionKey(scratchLocation.getBlockX() >> 4, scratchLocation.getBlockY() >> 4, scratchLocation.getBlockZ() >> 4);
+
+        Bucket bucket = itemBuckets.get(item);
+        if(bucket != null) {
+            if(bucket.worldId().equals(worldId) && bucket.sectionKey() == sectionKey) return;
+
+            removeFromBucket(item, bucket);
+        }
+
+        Bucket newBucket = bucketsBySection.computeIfAbsent(worldId, id -> new HashMap<>())
+                .computeIfAbsent(sectionKey, key -> new Bucket(worldId, key, new HashSet<>()));
+        newBucket.items().add(item);
+        itemBuckets.put(item, newBucket);
+
+        suctionRangeIndex.markSection(worldId, sectionKey);
+    }
+
+    /**
+     * Removes an {@link Item} from the index.
+     * @param item The {@link Item} to remove.
+     */
+    public void remove(@NotNull Item item) {
+        Bucket bucket = itemBuckets.remove(item);
+        if(bucket == null) return;
+
+        removeFromBucket(item, bucket);
+    }
+
+    /**
+     * Moves every indexed {@link Item} to the section it is currently in, if this wasn't done in the last {@link #REFRESH_INTERVAL_MS}.
+     * @param time The current time in milliseconds.
+     */
+    public void refreshIfStale(long time) {
+        if(time - lastRefreshTime < REFRESH_INTERVAL_MS) return;
+        lastRefreshTime = time;
+
+        // Moving an item only replaces its value in itemBuckets, so the key set can be iterated directly
+        for(Item item : itemBuckets.keySet()) {
+            add(item);
+        }
+    }
+
+    /**
+     * Adds the {@link Item}s whose position is inside a box around a center point to a {@link List}.
+     * Only the sections overlapping the box, and the sections next to them, are visited.
+     * @param worldId The {@link UUID} of the world to search.
+     * @param centerX The x coordinate of the center of the box.
+     * @param centerY The y coordinate of the center of the box.
+     * @param centerZ The z coordinate of the center of the box.
+     * @param range The distance from the center to each side of the box.
+     * @param items The {@link List} to add the {@link Item}s to.
+     * @return true if any {@link Item}s are in the visited sections, even outside the box, otherwise false.
+     */
+    public boolean collectItems(@NotNull UUID worldId, double centerX, double centerY, double centerZ, double range, @NotNull List<@NotNull Item> items) {
+        Map<Long, Bucket> worldBuckets = bucketsBySection.get(worldId);
+        if(worldBuckets == null) return false;
+
+        double minX = centerX - range, maxX = centerX + range;
+        double minY = centerY - range, maxY = centerY + range;
+        double minZ = centerZ - range, maxZ = centerZ + range;
+
+        // Items may have moved into the box from a neighbouring section since they were last refreshed
+        int minSectionX = (((int) Math.floor(minX)) >> 4) - 1, maxSectionX = (((int) Math.floor(maxX)) >> 4) + 1;
+        int minSectionY = (((int) Math.floor(minY)) >> 4) - 1, maxSectionY = (((int) Math.floor(maxY)) >> 4) + 1;
+        int minSectionZ = (((int) Math.floor(minZ)) >> 4) - 1, maxSectionZ = (((int) Math.floor(maxZ)) >> 4) + 1;
+
+        boolean sectionsHaveItems = false;
+        for(int sectionX = minSectionX; sectionX <= maxSectionX; sectionX++) {
+            for(int sectionZ = minSectionZ; sectionZ <= maxSectionZ; sectionZ++) {
+                for(int sectionY = minSectionY; sectionY <= maxSectionY; sectionY++) {
+                    Bucket bucket = worldBuckets.get(getSectionKey(sectionX, sectionY, sectionZ));
+                    if(bucket == null) continue;
+
+                    sectionsHaveItems = true;
+
+                    for(Item item : bucket.items()) {
+                        if(!item.isValid()) continue;
+
+                        item.getLocation(scratchLocation);
+                        double x = scratchLocation.getX(), y = scratchLocation.getY(), z = scratchLocation.getZ();
+                        if(x < minX || x > maxX || y < minY || y > maxY || z < minZ || z > maxZ) continue;
+
+                        items.add(item);
+                    }
+                }
+            }
+        }
+
+        return sectionsHaveItems;
+    }
+
+    /**
+     * Checks if no {@link Item}s are indexed.
+     * @return true if no {@link Item}s are indexed, otherwise false.
+     */
+    public boolean isEmpty() {
+        return itemBuckets.isEmpty();
+    }
+
+    /**
+     * Removes all {@link Item}s from the index.
+     */
+    public void clear() {
+        bucketsBySection.clear();
+        itemBuckets.clear();
+    }
+
+    /**
+     * Removes an {@link Item} from a {@link Bucket}, and the {@link Bucket} from the index if it is now empty.
+     * @param item The {@link Item} to remove.
+     * @param bucket The {@link Bucket} the {@link Item} is in.
+     */
+    private void removeFromBucket(@NotNull Item item, @NotNull Bucket bucket) {
+        bucket.items().remove(item);
+        if(!bucket.items().isEmpty()) return;
+
+        Map<Long, Bucket> worldBuckets = bucketsBySection.get(bucket.worldId());
+        if(worldBuckets == null) return;
+
+        worldBuckets.remove(bucket.sectionKey());
+        if(worldBuckets.isEmpty()) bucketsBySection.remove(bucket.worldId());
+    }
+
+    /**
+     * Get the key of a chunk section from its section coordinates.
+     * @param sectionX The section's x coordinate.
+     * @param sectionY The section's y coordinate.
+     * @param sectionZ The section's z coordinate.
+     * @return The section key.
+     */
+    static long getSectionKey(int sectionX, int sectionY, int sectionZ) {
+        return ((long) (sectionX & 0x3FFFFF) << 42) | ((long) (sectionZ & 0x3FFFFF) << 20) | (sectionY & 0xFFFFF);
+    }
+
+    /**
+     * The {@link Item}s in one chunk section.
+     * @param worldId The {@link UUID} of the section's world.
+     * @param sectionKey The section key.
+     * @param items The {@link Item}s in the section.
+     */
+    private record Bucket(@NotNull UUID worldId, long sectionKey, @NotNull Set<@NotNull Item> items) {}
+}
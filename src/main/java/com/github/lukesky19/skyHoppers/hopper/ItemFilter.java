@@ -0,0 +1,100 @@
+/*
+    SkyHoppers adds upgradable hoppers that can suction items, transfer items wirelessly to linked containers.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyHoppers.hopper;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * The {@link ItemType}s of a SkyHopper's or linked container's filter.
+ * Keeps the order items were added in for the filter GUIs and a {@link BitSet} indexed by {@link Material} ordinal for constant time lookups.
+ */
+public class ItemFilter {
+    private final @NotNull List<@NotNull ItemType> items = new ArrayList<>();
+    private final @NotNull List<@NotNull ItemType> itemsView = Collections.unmodifiableList(items);
+    private final @NotNull BitSet materials = new BitSet();
+
+    /**
+     * Constructor
+     * @param items The {@link ItemType}s to start with. Duplicates are ignored.
+     */
+    public ItemFilter(@NotNull Collection<ItemType> items) {
+        items.forEach(this::add);
+    }
+
+    /**
+     * Adds an {@link ItemType} to the filter.
+     * @param itemType The {@link ItemType} to add.
+     * @return true if the {@link ItemType} was added, false if it was already in the filter.
+     */
+    public boolean add(@NotNull ItemType itemType) {
+        if(contains(itemType)) return false;
+
+        items.add(itemType);
+
+        Material material = itemType.asMaterial();
+        if(material != null) materials.set(material.ordinal());
+
+        return true;
+    }
+
+    /**
+     * Removes an {@link ItemType} from the filter.
+     * @param itemType The {@link ItemType} to remove.
+     * @return true if the {@link ItemType} was removed, false if it wasn't in the filter.
+     */
+    public boolean remove(@NotNull ItemType itemType) {
+        if(!items.remove(itemType)) return false;
+
+        Material material = itemType.asMaterial();
+        if(material != null) materials.clear(material.ordinal());
+
+        return true;
+    }
+
+    /**
+     * Checks if an {@link ItemType} is in the filter.
+     * @param itemType The {@link ItemType} to check.
+     * @return true if the {@link ItemType} is in the filter, otherwise false.
+     */
+    public boolean contains(@NotNull ItemType itemType) {
+        Material material = itemType.asMaterial();
+        if(material == null) return items.contains(itemType);
+
+        return materials.get(material.ordinal());
+    }
+
+    /**
+     * Checks if the filter has no {@link ItemType}s.
+     * @return true if the filter is empty, otherwise false.
+     */
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    /**
+     * Get the {@link ItemType}s in the filter in the order they were added.
+     * @return An unmodifiable {@link List} of {@link ItemType}s.
+     */
+    public @NotNull List<@NotNull ItemType> asList() {
+        return itemsView;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+    SkyHoppers adds upgradable hoppers that can suction items, transfer items wirelessly to linked containers.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyHoppers.hopper;
+
+import com.github.lukesky19.skyHoppers.data.BlockLocation;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Maps the {@link BlockLocation} of each linked container to the {@link SkyHopper}s that are linked to it.
+ * The linked container locations are also grouped by world and chunk key.
+ */
+public class LinkedContainerIndex {
+    private final @NotNull Map<@NotNull BlockLocation, @NotNull Set<@NotNull SkyHopper>> skyHoppersByContainer = new HashMap<>();
+    private final @NotNull Map<@NotNull UUID, @NotNull Map<@NotNull Long, @NotNull Set<@NotNull BlockLocation>>> containersByChunk = new HashMap<>();
+
+    /**
+     * Adds a link from a {@link SkyHopper} to the container at the given {@link BlockLocation}.
+     * @param skyHopper The {@link SkyHopper}.
+     * @param containerLocation The {@link BlockLocation} of the linked container.
+     */
+    public void add(@NotNull SkyHopper skyHopper, @NotNull BlockLocation containerLocation) {
+        skyHoppersByContainer.computeIfAbsent(containerLocation, location -> {
+            containersByChunk.computeIfAbsent(location.worldId(), worldId -> new HashMap<>())
+                    .computeIfAbsent(location.getChunkKey(), chunkKey -> new HashSet<>())
+                    .add(location);
+
+            return new HashSet<>();
+        }).add(skyHopper);
+    }
+
+    /**
+     * Removes a link from a {@link SkyHopper} to the container at the given {@link BlockLocation}.
+     * @param skyHopper The {@link SkyHopper}.
+     * @param containerLocation The {@link BlockLocation} of the linked container.
+     */
+    public void remove(@NotNull SkyHopper skyHopper, @NotNull BlockLocation containerLocation) {
+        Set<SkyHopper> skyHoppers = skyHoppersByContainer.get(containerLocation);
+        if(skyHoppers == null) return;
+
+        skyHoppers.remove(skyHopper);
+
+        if(skyHoppers.isEmpty()) {
+            skyHoppersByContainer.remove(containerLocation);
+
+            Map<Long, Set<BlockLocation>> worldChunks = containersByChunk.get(containerLocation.worldId());
+            if(worldChunks == null) return;
+
+            Set<BlockLocation> chunkLocations = worldChunks.get(containerLocation.getChunkKey());
+            if(chunkLocations == null) return;
+
+            chunkLocations.remove(containerLocation);
+            if(chunkLocations.isEmpty()) worldChunks.remove(containerLocation.getChunkKey());
+            if(worldChunks.isEmpty()) containersByChunk.remove(containerLocation.worldId());
+        }
+    }
+
+    /**
+     * Get the {@link SkyHopper}s that are linked to the container at the given {@link BlockLocation}.
+     * @param containerLocation The {@link BlockLocation} of the container.
+     * @return An unmodifiable {@link Set} of {@link SkyHopper}s. Empty if no {@link SkyHopper}s are linked to the container.
+     */
+    public @NotNull Set<@NotNull SkyHopper> getSkyHoppers(@NotNull BlockLocation containerLocation) {
+        Set<SkyHopper> skyHoppers = skyHoppersByContainer.get(containerLocation);
+        if(skyHoppers == null) return Set.of();
+
+        return Collections.unmodifiableSet(skyHoppers);
+    }
+
+    /**
+     * Checks if any {@link SkyHopper} is linked to the container at the given {@link BlockLocation}.
+     * @param containerLocation The {@link BlockLocation} of the container.
+     * @return true if the container is linked, otherwise false.
+     */
+    public boolean contains(@NotNull BlockLocation containerLocation) {
+        return skyHoppersByContainer.containsKey(containerLocation);
+    }
+
+    /**
+     * Get the {@link BlockLocation}s of the linked containers in a chunk.
+     * @param worldId The {@link UUID} of the chunk's world.
+     * @param chunkKey The chunk key of the chunk.
+     * @return An unmodifiable {@link Set} of {@link BlockLocation}s. Empty if no linked containers are in the chunk.
+     */
+    public @NotNull Set<@NotNull BlockLocation> getContainerLocations(@NotNull UUID worldId, long chunkKey) {
+        Map<Long, Set<BlockLocation>> worldChunks = containersByChunk.get(worldId);
+        if(worldChunks == null) return Set.of();
+
+        Set<BlockLocation> chunkLocations = worldChunks.get(chunkKey);
+        if(chunkLocations == null) return Set.of();
+
+        return Collections.unmodifiableSet(chunkLocations);
+    }
+
+    /**
+     * Removes all links from the index.
+     */
+    public void clear() {
+        skyHoppersByContainer.clear();
+        containersByChunk.clear();
+    }
+}
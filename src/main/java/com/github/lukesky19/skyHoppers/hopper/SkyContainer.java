@@ -17,20 +17,26 @@
 */
 package com.github.lukesky19.skyHoppers.hopper;
 
+import com.github.lukesky19.skyHoppers.data.BlockLocation;
 import org.bukkit.Location;
+import org.bukkit.block.Block;
+import org.bukkit.block.Container;
 import org.bukkit.inventory.ItemType;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Contains the data for a SkyHopper's linked container.
  */
 public class SkyContainer {
-    private final @NotNull Location location;
+    private final @NotNull BlockLocation location;
     private @NotNull FilterType filterType;
-    private final @NotNull List<ItemType> filterItems = new ArrayList<>();
+    private final @NotNull ItemFilter filterItems;
+    private @Nullable CompiledFilter compiledFilter;
+    private @Nullable SkyHopper skyHopper;
+    private @Nullable Container container;
 
     /**
      * Constructor
@@ -38,8 +44,9 @@ public class SkyContainer {
      * @param filterType The {@link FilterType} for the linked container.
      */
     public SkyContainer(@NotNull Location location, @NotNull FilterType filterType) {
-        this.location = location;
+        this.location = BlockLocation.of(location);
         this.filterType = filterType;
+        this.filterItems = new ItemFilter(List.of());
     }
 
     /**
@@ -49,9 +56,9 @@ public class SkyContainer {
      * @param filterItems The {@link List} of {@link ItemType}s that are filtered.
      */
     public SkyContainer(@NotNull Location location, @NotNull FilterType filterType, @NotNull List<ItemType> filterItems) {
-        this.location = location;
+        this.location = BlockLocation.of(location);
         this.filterType = filterType;
-        this.filterItems.addAll(filterItems);
+        this.filterItems = new ItemFilter(filterItems);
     }
 
     /**
@@ -59,7 +66,43 @@ public class SkyContainer {
      * @return A copy of the {@link Location} of the linked container.
      */
     public @NotNull Location getLocation() {
-        return new Location(location.getWorld(), location.getBlockX(), location.getBlockY(), location.getBlockZ());
+        return location.toLocation();
+    }
+
+    /**
+     * Get the {@link BlockLocation} of the linked container.
+     * @return The {@link BlockLocation} of the linked container.
+     */
+    public @NotNull BlockLocation getBlockLocation() {
+        return location;
+    }
+
+    /**
+     * Get the {@link Container} at the linked container's location.
+     * The {@link Container} is resolved once and then returned without reading the world until {@link #invalidateContainer()} clears it.
+     * @return The {@link Container} or null if the chunk is not loaded or the block is not a {@link Container}.
+     */
+    public @Nullable Container getContainer() {
+        Container cachedContainer = this.container;
+        if(cachedContainer != null) return cachedContainer;
+
+        if(!location.isChunkLoaded()) return null;
+
+        Block block = location.getBlock();
+        if(block == null || !(block.getState(false) instanceof Container resolvedContainer)) return null;
+
+        this.container = resolvedContainer;
+
+        return resolvedContainer;
+    }
+
+    /**
+     * Clears the cached {@link Container} so it is resolved again on the next {@link #getContainer()} call.
+     * Must be called when the block at the linked container's location changes or its chunk unloads.
+     * LinkedContainerChangeListener and HopperManager call it for every block change and chunk unload that fires an event.
+     */
+    public void invalidateContainer() {
+        this.container = null;
     }
 
     /**
@@ -76,6 +119,7 @@ public class SkyContainer {
      */
     public void setFilterType(@NotNull FilterType filterType) {
         this.filterType = filterType;
+        clearCompiledFilter();
     }
 
     /**
@@ -83,9 +127,7 @@ public class SkyContainer {
      * @param itemType The {@link ItemType} to add.
      */
     public void addFilterItem(@NotNull ItemType itemType) {
-        if(!this.filterItems.contains(itemType)) {
-            this.filterItems.add(itemType);
-        }
+        if(this.filterItems.add(itemType)) clearCompiledFilter();
     }
 
     /**
@@ -93,14 +135,57 @@ public class SkyContainer {
      * @param itemType The {@link ItemType} to remove.
      */
     public void removeFilterItem(@NotNull ItemType itemType) {
-        this.filterItems.remove(itemType);
+        if(this.filterItems.remove(itemType)) clearCompiledFilter();
     }
 
     /**
      * Get the {@link List} of {@link ItemType}s that are filtered.
-     * @return A {@link List} of {@link ItemType}.
+     * @return An unmodifiable {@link List} of {@link ItemType}s in the order they were added.
      */
     public @NotNull List<ItemType> getFilterItems() {
-        return filterItems;
+        return filterItems.asList();
+    }
+
+    /**
+     * Checks if an {@link ItemType} is one of the filter items.
+     * @param itemType The {@link ItemType} to check.
+     * @return true if the {@link ItemType} is filtered, otherwise false.
+     */
+    public boolean isFilterItem(@NotNull ItemType itemType) {
+        return filterItems.contains(itemType);
+    }
+
+    /**
+     * Get the {@link CompiledFilter} for the current {@link FilterType} and filter items.
+     * The {@link CompiledFilter} is only rebuilt after the filter changes. An empty {@link FilterType#BLACKLIST} accepts nothing.
+     * @return A {@link CompiledFilter}.
+     */
+    public @NotNull CompiledFilter getCompiledFilter() {
+        CompiledFilter filter = compiledFilter;
+        if(filter == null) {
+            filter = CompiledFilter.compile(filterType, filterItems, false);
+            compiledFilter = filter;
+        }
+
+        return filter;
+    }
+
+    /**
+     * Sets the {@link SkyHopper} this container is linked to, so it can be told when the filter changes.
+     * @param skyHopper The {@link SkyHopper} or null if the container was unlinked.
+     */
+    void setSkyHopper(@Nullable SkyHopper skyHopper) {
+        this.skyHopper = skyHopper;
+    }
+
+    /**
+     * Clears the {@link CompiledFilter} and the routes of the linked {@link SkyHopper} after the filter changes.
+     */
+    private void clearCompiledFilter() {
+        this.compiledFilter = null;
+
+        if(this.skyHopper != null) {
+            this.skyHopper.clearRoutes();
+        }
     }
 }
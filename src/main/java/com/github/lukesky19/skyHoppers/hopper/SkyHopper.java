@@ -17,14 +17,14 @@
 */
 package com.github.lukesky19.skyHoppers.hopper;
 
+import com.github.lukesky19.skyHoppers.data.BlockLocation;
 import org.bukkit.Location;
+import org.bukkit.Material;
 import org.bukkit.inventory.ItemType;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
 
 /**
  * Contains the data for a SkyHopper.
@@ -39,14 +39,17 @@ public class SkyHopper {
     private final @NotNull List<@NotNull UUID> members = new ArrayList<>();
 
     // Location
-    private @Nullable Location location;
+    private @Nullable BlockLocation location;
 
     // Linked Containers
     private final @NotNull List<@NotNull SkyContainer> linkedContainers = new ArrayList<>();
+    private final @NotNull Map<@NotNull Material, @NotNull List<@NotNull SkyContainer>> routes = new EnumMap<>(Material.class);
 
     // Filter
     private @NotNull FilterType filterType;
-    private final @NotNull List<@NotNull ItemType> filterItems = new ArrayList<>();
+    private final @NotNull ItemFilter filterItems;
+    private @Nullable CompiledFilter compiledFilter;
+    private @Nullable CompiledFilter compiledInputFilter;
 
     // Upgrades
     private double transferSpeed;
@@ -65,6 +68,16 @@ public class SkyHopper {
     private long nextSuctionTime;
     private long nextTransferTime;
 
+    // Schedulers
+    private @Nullable HopperScheduler transferScheduler;
+    private @Nullable HopperScheduler suctionScheduler;
+
+    // Linked Container Index
+    private @Nullable LinkedContainerIndex linkedContainerIndex;
+
+    // Suction Range Index
+    private @Nullable SuctionRangeIndex suctionRangeIndex;
+
     /**
      * Constructor
      * @param enabled Is the SkyHopper enabled?
@@ -114,15 +127,12 @@ public class SkyHopper {
         this.owner = owner;
         this.members.addAll(members);
 
-        if(location != null) {
-            this.location = new Location(location.getWorld(), location.getBlockX(), location.getBlockY(), location.getBlockZ());
-        } else {
-            this.location = null;
-        }
+        setLocation(location);
 
         this.linkedContainers.addAll(linkedContainers);
+        this.linkedContainers.forEach(skyContainer -> skyContainer.setSkyHopper(this));
         this.filterType = filterType;
-        this.filterItems.addAll(filterItems);
+        this.filterItems = new ItemFilter(filterItems);
         this.transferSpeed = transferSpeed;
         this.maxTransferSpeed = maxTransferSpeed;
         this.transferAmount = transferAmount;
@@ -217,15 +227,24 @@ public class SkyHopper {
     public @Nullable Location getLocation() {
         if(location == null) return null;
 
-        return new Location(location.getWorld(), location.getBlockX(), location.getBlockY(), location.getBlockZ());
+        return location.toLocation();
+    }
+
+    /**
+     * Get the {@link BlockLocation} of the SkyHopper.
+     * @return The {@link BlockLocation} of the SkyHopper or null if the SkyHopper isn't placed.
+     */
+    public @Nullable BlockLocation getBlockLocation() {
+        return location;
     }
 
     /**
-     * Set the {@link Location} of the SkyHopper. Will create a copy of the {@link Location} provided before using,
+     * Set the {@link Location} of the SkyHopper. Only the {@link Location}'s world and block coordinates are used.
+     * @param location The {@link Location} of the SkyHopper or null.
      */
     public void setLocation(@Nullable Location location) {
-        if(location != null) {
-            this.location = new Location(location.getWorld(), location.getBlockX(), location.getBlockY(), location.getBlockZ());
+        if(location != null && location.getWorld() != null) {
+            this.location = BlockLocation.of(location);
             return;
         }
 
@@ -238,6 +257,12 @@ public class SkyHopper {
      */
     public void addLinkedContainer(@NotNull SkyContainer skyContainer) {
         linkedContainers.add(skyContainer);
+        skyContainer.setSkyHopper(this);
+        clearRoutes();
+
+        if(linkedContainerIndex != null) {
+            linkedContainerIndex.add(this, skyContainer.getBlockLocation());
+        }
     }
 
     /**
@@ -245,15 +270,78 @@ public class SkyHopper {
      * @param skyContainer The {@link SkyContainer} to remove.
      */
     public void removeLinkedContainer(@NotNull SkyContainer skyContainer) {
-        linkedContainers.remove(skyContainer);
+        if(!linkedContainers.remove(skyContainer)) return;
+
+        skyContainer.setSkyHopper(null);
+        clearRoutes();
+
+        if(linkedContainerIndex != null && getLinkedContainer(skyContainer.getBlockLocation()) == null) {
+            linkedContainerIndex.remove(this, skyContainer.getBlockLocation());
+        }
+    }
+
+    /**
+     * Get the {@link SkyContainer} linked at the given {@link BlockLocation}.
+     * @param location The {@link BlockLocation} of the container.
+     * @return The {@link SkyContainer} or null if no container is linked at that {@link BlockLocation}.
+     */
+    public @Nullable SkyContainer getLinkedContainer(@NotNull BlockLocation location) {
+        for(SkyContainer skyContainer : linkedContainers) {
+            if(skyContainer.getBlockLocation().equals(location)) return skyContainer;
+        }
+
+        return null;
     }
 
     /**
      * Get the {@link List} of {@link SkyContainer}s that are linked to the SkyHopper.
-     * @return A {@link List} of {@link SkyContainer}s.
+     * Use {@link #addLinkedContainer(SkyContainer)} and {@link #removeLinkedContainer(SkyContainer)} to change the linked containers.
+     * @return An unmodifiable {@link List} of {@link SkyContainer}s.
      */
     public @NotNull List<SkyContainer> getLinkedContainers() {
-        return linkedContainers;
+        return Collections.unmodifiableList(linkedContainers);
+    }
+
+    /**
+     * Get the linked {@link SkyContainer}s whose filter does not reject an {@link ItemType}, in the order they were linked.
+     * The result is cached per {@link Material} until a container is linked or unlinked or a linked container's filter changes.
+     * @param itemType The {@link ItemType} to route.
+     * @return An unmodifiable {@link List} of {@link SkyContainer}s.
+     */
+    public @NotNull List<SkyContainer> getLinkedContainers(@NotNull ItemType itemType) {
+        Material material = itemType.asMaterial();
+        if(material == null) return findLinkedContainers(itemType);
+
+        List<SkyContainer> route = routes.get(material);
+        if(route == null) {
+            route = findLinkedContainers(itemType);
+            routes.put(material, route);
+        }
+
+        return route;
+    }
+
+    /**
+     * Clears the cached routes so they are rebuilt from the current linked containers and their filters.
+     */
+    void clearRoutes() {
+        routes.clear();
+    }
+
+    /**
+     * Finds the linked {@link SkyContainer}s whose filter does not reject an {@link ItemType}.
+     * @param itemType The {@link ItemType} to route.
+     * @return An unmodifiable {@link List} of {@link SkyContainer}s.
+     */
+    private @NotNull List<SkyContainer> findLinkedContainers(@NotNull ItemType itemType) {
+        List<SkyContainer> route = new ArrayList<>();
+        for(SkyContainer skyContainer : linkedContainers) {
+            if(skyContainer.getCompiledFilter().getAction(itemType) != FilterAction.REJECT) {
+                route.add(skyContainer);
+            }
+        }
+
+        return route.isEmpty() ? List.of() : Collections.unmodifiableList(route);
     }
 
     /**
@@ -270,6 +358,7 @@ public class SkyHopper {
      */
     public void setFilterType(@NotNull FilterType filterType) {
         this.filterType = filterType;
+        clearCompiledFilters();
     }
 
     /**
@@ -277,9 +366,7 @@ public class SkyHopper {
      * @param itemType The {@link ItemType} to add.
      */
     public void addFilterItem(@NotNull ItemType itemType) {
-        if(!filterItems.contains(itemType)) {
-            filterItems.add(itemType);
-        }
+        if(filterItems.add(itemType)) clearCompiledFilters();
     }
 
     /**
@@ -287,15 +374,62 @@ public class SkyHopper {
      * @param itemType The {@link ItemType} to remove.
      */
     public void removeFilterItem(@NotNull ItemType itemType) {
-        filterItems.remove(itemType);
+        if(filterItems.remove(itemType)) clearCompiledFilters();
     }
 
     /**
      * Get the {@link List} of {@link ItemType}s that are filtered.
-     * @return A {@link List} of {@link ItemType}.
+     * @return An unmodifiable {@link List} of {@link ItemType}s in the order they were added.
      */
     public @NotNull List<ItemType> getFilterItems() {
-        return filterItems;
+        return filterItems.asList();
+    }
+
+    /**
+     * Checks if an {@link ItemType} is one of the filter items.
+     * @param itemType The {@link ItemType} to check.
+     * @return true if the {@link ItemType} is filtered, otherwise false.
+     */
+    public boolean isFilterItem(@NotNull ItemType itemType) {
+        return filterItems.contains(itemType);
+    }
+
+    /**
+     * Get the {@link CompiledFilter} used when the SkyHopper suctions or picks up items.
+     * The {@link CompiledFilter} is only rebuilt after the filter changes. An empty {@link FilterType#BLACKLIST} accepts nothing.
+     * @return A {@link CompiledFilter}.
+     */
+    public @NotNull CompiledFilter getCompiledFilter() {
+        CompiledFilter filter = compiledFilter;
+        if(filter == null) {
+            filter = CompiledFilter.compile(filterType, filterItems, false);
+            compiledFilter = filter;
+        }
+
+        return filter;
+    }
+
+    /**
+     * Get the {@link CompiledFilter} used when the SkyHopper pulls items out of the container above it.
+     * The {@link CompiledFilter} is only rebuilt after the filter changes. An empty {@link FilterType#BLACKLIST} accepts every item.
+     * @return A {@link CompiledFilter}.
+     */
+    public @NotNull CompiledFilter getCompiledInputFilter() {
+        CompiledFilter filter = compiledInputFilter;
+        if(filter == null) {
+            filter = CompiledFilter.compile(filterType, filterItems, true);
+            compiledInputFilter = filter;
+        }
+
+        return filter;
+    }
+
+    /**
+     * Clears the {@link CompiledFilter}s after the filter changes.
+     */
+    private void clearCompiledFilters() {
+        this.compiledFilter = null;
+        this.compiledInputFilter = null;
     }
 
     /**
@@ -312,6 +446,12 @@ public class SkyHopper {
      */
     public void setTransferSpeed(double transferSpeed) {
         this.transferSpeed = transferSpeed;
+
+        // Bring the next transfer forward if the new speed is faster than the time left
+        long fasterTransferTime = System.currentTimeMillis() + (long) (transferSpeed * 1000);
+        if(fasterTransferTime < nextTransferTime) {
+            setNextTransferTime(fasterTransferTime);
+        }
     }
 
     /**
@@ -376,6 +516,12 @@ public class SkyHopper {
      */
     public void setSuctionSpeed(double suctionSpeed) {
         this.suctionSpeed = suctionSpeed;
+
+        // Bring the next suction forward if the new speed is faster than the time left
+        long fasterSuctionTime = System.currentTimeMillis() + (long) (suctionSpeed * 1000);
+        if(fasterSuctionTime < nextSuctionTime) {
+            setNextSuctionTime(fasterSuctionTime);
+        }
     }
 
     /**
@@ -440,6 +586,10 @@ public class SkyHopper {
      */
     public void setSuctionRange(int suctionRange) {
         this.suctionRange = suctionRange;
+
+        if(suctionRangeIndex != null) {
+            suctionRangeIndex.update(this);
+        }
     }
 
     /**
@@ -473,19 +623,139 @@ public class SkyHopper {
         this.maxContainers = maxContainers;
     }
 
+    /**
+     * Get the time in milliseconds when the next suction should occur.
+     * @return The time in milliseconds when the next suction should occur.
+     */
     public long getNextSuctionTime() {
         return nextSuctionTime;
     }
 
+    /**
+     * Set the time in milliseconds when the next suction should occur.
+     * The SkyHopper is rescheduled in its suction {@link HopperScheduler} if it has one.
+     * @param nextSuctionTime The time in milliseconds when the next suction should occur.
+     */
     public void setNextSuctionTime(long nextSuctionTime) {
         this.nextSuctionTime = nextSuctionTime;
+
+        if(suctionScheduler != null) {
+            suctionScheduler.schedule(this, nextSuctionTime);
+        }
+    }
+
+    /**
+     * Schedules the SkyHopper to be checked for suction again without changing its next suction time.
+     * Nothing happens if the SkyHopper has no suction {@link HopperScheduler} or is already scheduled.
+     * @param checkTime The time in milliseconds to check again.
+     */
+    public void scheduleSuctionCheck(long checkTime) {
+        if(suctionScheduler != null && !suctionScheduler.isScheduled(this)) {
+            suctionScheduler.schedule(this, checkTime);
+        }
     }
 
+    /**
+     * Get the time in milliseconds when the next transfer should occur.
+     * @return The time in milliseconds when the next transfer should occur.
+     */
     public long getNextTransferTime() {
         return nextTransferTime;
     }
 
+    /**
+     * Set the time in milliseconds when the next transfer should occur.
+     * The SkyHopper is rescheduled in its transfer {@link HopperScheduler} if it has one.
+     * @param nextTransferTime The time in milliseconds when the next transfer should occur.
+     */
     public void setNextTransferTime(long nextTransferTime) {
         this.nextTransferTime = nextTransferTime;
+
+        if(transferScheduler != null) {
+            transferScheduler.schedule(this, nextTransferTime);
+        }
+    }
+
+    /**
+     * Schedules the SkyHopper to be checked for a transfer again without changing its next transfer time.
+     * Nothing happens if the SkyHopper has no transfer {@link HopperScheduler} or is already scheduled.
+     * @param checkTime The time in milliseconds to check again.
+     */
+    public void scheduleTransferCheck(long checkTime) {
+        if(transferScheduler != null && !transferScheduler.isScheduled(this)) {
+            transferScheduler.schedule(this, checkTime);
+        }
+    }
+
+    /**
+     * Set the {@link HopperScheduler} that handles the SkyHopper's transfers.
+     * The SkyHopper is scheduled for its next transfer time and removed from any previous {@link HopperScheduler}.
+     * @param transferScheduler The {@link HopperScheduler} or null to stop scheduling transfers.
+     */
+    public void setTransferScheduler(@Nullable HopperScheduler transferScheduler) {
+        if(this.transferScheduler != null) {
+            this.transferScheduler.unschedule(this);
+        }
+
+        this.transferScheduler = transferScheduler;
+
+        if(transferScheduler != null) {
+            transferScheduler.schedule(this, nextTransferTime);
+        }
+    }
+
+    /**
+     * Set the {@link HopperScheduler} that handles the SkyHopper's suction.
+     * The SkyHopper is scheduled for its next suction time and removed from any previous {@link HopperScheduler}.
+     * @param suctionScheduler The {@link HopperScheduler} or null to stop scheduling suction.
+     */
+    public void setSuctionScheduler(@Nullable HopperScheduler suctionScheduler) {
+        if(this.suctionScheduler != null) {
+            this.suctionScheduler.unschedule(this);
+        }
+
+        this.suctionScheduler = suctionScheduler;
+
+        if(suctionScheduler != null) {
+            suctionScheduler.schedule(this, nextSuctionTime);
+        }
+    }
+
+    /**
+     * Set the {@link LinkedContainerIndex} that tracks which containers the SkyHopper is linked to.
+     * The SkyHopper's links are added to the new {@link LinkedContainerIndex} and removed from any previous one.
+     * @param linkedContainerIndex The {@link LinkedContainerIndex} or null to stop tracking the SkyHopper's links.
+     */
+    public void setLinkedContainerIndex(@Nullable LinkedContainerIndex linkedContainerIndex) {
+        if(this.linkedContainerIndex != null) {
+            for(SkyContainer skyContainer : linkedContainers) {
+                this.linkedContainerIndex.remove(this, skyContainer.getBlockLocation());
+            }
+        }
+
+        this.linkedContainerIndex = linkedContainerIndex;
+
+        if(linkedContainerIndex != null) {
+            for(SkyContainer skyContainer : linkedContainers) {
+                linkedContainerIndex.add(this, skyContainer.getBlockLocation());
+            }
+        }
+    }
+
+    /**
+     * Set the {@link SuctionRangeIndex} that tracks which chunk sections the SkyHopper's suction range overlaps.
+     * The SkyHopper is added to the new {@link SuctionRangeIndex} and removed from any previous one.
+     * @param suctionRangeIndex The {@link SuctionRangeIndex} or null to stop tracking the SkyHopper's suction range.
+     */
+    public void setSuctionRangeIndex(@Nullable SuctionRangeIndex suctionRangeIndex) {
+        if(this.suctionRangeIndex != null) {
+            this.suctionRangeIndex.remove(this);
+        }
+
+        this.suctionRangeIndex = suctionRangeIndex;
+
+        if(suctionRangeIndex != null) {
+            suctionRangeIndex.update(this);
+        }
     }
 }
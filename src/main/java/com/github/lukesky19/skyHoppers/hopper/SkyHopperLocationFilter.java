@@ -0,0 +1,209 @@
+/*
+    SkyHoppers adds upgradable hoppers that can suction items, transfer items wirelessly to linked containers.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyHoppers.hopper;
+
+import com.github.lukesky19.skyHoppers.data.BlockLocation;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * An exact set of the block positions of loaded {@link SkyHopper}s, grouped by world.
+ * Each position is packed into a long and stored in an open addressing table, so a lookup only uses primitive math and array reads.
+ * This lets callers skip the map lookup for the blocks that are not SkyHoppers without creating a {@link BlockLocation}.
+ */
+public class SkyHopperLocationFilter {
+    private final @NotNull Map<@NotNull UUID, @NotNull PositionSet> positionsByWorld = new HashMap<>();
+
+    /**
+     * Adds a {@link SkyHopper}'s {@link BlockLocation} to the filter.
+     * @param location The {@link BlockLocation} of the {@link SkyHopper}.
+     */
+    public void add(@NotNull BlockLocation location) {
+        positionsByWorld.computeIfAbsent(location.worldId(), worldId -> new PositionSet()).add(pack(location.x(), location.y(), location.z()));
+    }
+
+    /**
+     * Removes a {@link SkyHopper}'s {@link BlockLocation} from the filter.
+     * @param location The {@link BlockLocation} of the {@link SkyHopper}.
+     */
+    public void remove(@NotNull BlockLocation location) {
+        PositionSet positions = positionsByWorld.get(location.worldId());
+        if(positions == null) return;
+
+        positions.remove(pack(location.x(), location.y(), location.z()));
+        if(positions.isEmpty()) positionsByWorld.remove(location.worldId());
+    }
+
+    /**
+     * Checks if a {@link SkyHopper} is at the given block position.
+     * @param worldId The {@link UUID} of the world.
+     * @param x The block x coordinate.
+     * @param y The block y coordinate.
+     * @param z The block z coordinate.
+     * @return true if a {@link SkyHopper} was added at the position, otherwise false.
+     */
+    public boolean contains(@NotNull UUID worldId, int x, int y, int z) {
+        PositionSet positions = positionsByWorld.get(worldId);
+
+        return positions != null && positions.contains(pack(x, y, z));
+    }
+
+    /**
+     * Removes all {@link BlockLocation}s from the filter.
+     */
+    public void clear() {
+        positionsByWorld.clear();
+    }
+
+    /**
+     * Packs a block position into a long, the same way Minecraft packs block positions.
+     * X and z use 26 bits each and y uses 12 bits, which covers every position inside the world border.
+     * @param x The block x coordinate.
+     * @param y The block y coordinate.
+     * @param z The block z coordinate.
+     * @return The packed position.
+     */
+    private static long pack(int x, int y, int z) {
+        return ((x & 0x3FFFFFFL) << 38) | ((z & 0x3FFFFFFL) << 12) | (y & 0xFFFL);
+    }
+
+    /**
+     * A set of packed block positions using linear probing. 0 marks an empty slot, so the position 0 is tracked separately.
+     */
+    private static final class PositionSet {
+        private static final int MIN_CAPACITY = 16;
+
+        private long @NotNull [] keys = new long[MIN_CAPACITY];
+        private int mask = MIN_CAPACITY - 1;
+        private int size = 0;
+        private boolean containsZero = false;
+
+        /**
+         * Adds a packed position to the set.
+         * @param key The packed position.
+         */
+        void add(long key) {
+            if(key == 0L) {
+                containsZero = true;
+                return;
+            }
+
+            int index = indexOf(key);
+            if(keys[index] == key) return;
+
+            keys[index] = key;
+            size++;
+
+            // Keep the table at most half full so probe chains stay short
+            if(size * 2 > keys.length) resize(keys.length * 2);
+        }
+
+        /**
+         * Removes a packed position from the set.
+         * @param key The packed position.
+         */
+        void remove(long key) {
+            if(key == 0L) {
+                containsZero = false;
+                return;
+            }
+
+            int index = indexOf(key);
+            if(keys[index] != key) return;
+
+            keys[index] = 0L;
+            size--;
+
+            // Move later keys of the probe chain into the gap, so lookups never stop at it
+            int gap = index;
+            int next = (index + 1) & mask;
+            while(keys[next] != 0L) {
+                int home = slot(keys[next]);
+                if(((next - home) & mask) >= ((next - gap) & mask)) {
+                    keys[gap] = keys[next];
+                    keys[next] = 0L;
+                    gap = next;
+                }
+
+                next = (next + 1) & mask;
+            }
+        }
+
+        /**
+         * Checks if a packed position is in the set.
+         * @param key The packed position.
+         * @return true if the packed position is in the set, otherwise false.
+         */
+        boolean contains(long key) {
+            if(key == 0L) return containsZero;
+
+            return keys[indexOf(key)] == key;
+        }
+
+        /**
+         * Checks if the set is empty.
+         * @return true if the set is empty, otherwise false.
+         */
+        boolean isEmpty() {
+            return size == 0 && !containsZero;
+        }
+
+        /**
+         * Get the slot holding a packed position, or the empty slot where it would be added.
+         * @param key The packed position.
+         * @return The slot index.
+         */
+        private int indexOf(long key) {
+            int index = slot(key);
+            while(keys[index] != 0L && keys[index] != key) {
+                index = (index + 1) & mask;
+            }
+
+            return index;
+        }
+
+        /**
+         * Get the first slot a packed position is probed at.
+         * @param key The packed position.
+         * @return The slot index.
+         */
+        private int slot(long key) {
+            // Finalizer from SplitMix64 to spread the bits
+            long hash = (key ^ (key >>> 30)) * 0xBF58476D1CE4E5B9L;
+            hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+            return (int) (hash ^ (hash >>> 31)) & mask;
+        }
+
+        /**
+         * Moves every packed position into a new table.
+         * @param capacity The capacity of the new table, a power of two.
+         */
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            keys = new long[capacity];
+            mask = capacity - 1;
+
+            for(long key : oldKeys) {
+                if(key != 0L) keys[indexOf(key)] = key;
+            }
+        }
+    }
+}
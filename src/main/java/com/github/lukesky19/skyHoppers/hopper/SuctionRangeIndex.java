@@ -0,0 +1,143 @@
+/*
+    SkyHoppers adds upgradable hoppers that can suction items, transfer items wirelessly to linked containers.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyHoppers.hopper;
+
+import com.github.lukesky19.skyHoppers.data.BlockLocation;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Maps each chunk section to the {@link SkyHopper}s whose suction range overlaps it.
+ * When an item enters a section, the {@link SkyHopper}s covering that section are marked as having items to collect,
+ * so push mode suction only runs for {@link SkyHopper}s that may have items in range.
+ */
+public class SuctionRangeIndex {
+    private final @NotNull Map<@NotNull UUID, @NotNull Map<@NotNull Long, @NotNull Set<@NotNull SkyHopper>>> skyHoppersBySection = new HashMap<>();
+    private final @NotNull Map<@NotNull SkyHopper, @NotNull Footprint> footprints = new HashMap<>();
+    private final @NotNull Set<@NotNull SkyHopper> pendingSkyHoppers = new HashSet<>();
+
+    /**
+     * Adds a {@link SkyHopper} to the sections its suction range overlaps, replacing the sections it was previously added to.
+     * The {@link SkyHopper} is marked as pending since items may already be in range.
+     * @param skyHopper The {@link SkyHopper} to add.
+     */
+    public void update(@NotNull SkyHopper skyHopper) {
+        remove(skyHopper);
+
+        BlockLocation location = skyHopper.getBlockLocation();
+        if(location == null) return;
+
+        double range = skyHopper.getSuctionRange() + 0.5;
+        double centerX = location.x() + 0.5, centerY = location.y() + 0.5, centerZ = location.z() + 0.5;
+
+        int minSectionX = ((int) Math.floor(centerX - range)) >> 4, maxSectionX = ((int) Math.floor(centerX + range)) >> 4;
+        int minSectionY = ((int) Math.floor(centerY - range)) >> 4, maxSectionY = ((int) Math.floor(centerY + range)) >> 4;
+        int minSectionZ = ((int) Math.floor(centerZ - range)) >> 4, maxSectionZ = ((int) Math.floor(centerZ + range)) >> 4;
+
+        Map<Long, Set<SkyHopper>> worldSections = skyHoppersBySection.computeIfAbsent(location.worldId(), worldId -> new HashMap<>());
+        List<Long> sectionKeys = new ArrayList<>();
+
+        for(int sectionX = minSectionX; sectionX <= maxSectionX; sectionX++) {
+            for(int sectionZ = minSectionZ; sectionZ <= maxSectionZ; sectionZ++) {
+                for(int sectionY = minSectionY; sectionY <= maxSectionY; sectionY++) {
+                    long sectionKey = ItemEntityIndex.getSectionKey(sectionX, sectionY, sectionZ);
+
+                    worldSections.computeIfAbsent(sectionKey, key -> new HashSet<>()).add(skyHopper);
+                    sectionKeys.add(sectionKey);
+                }
+            }
+        }
+
+        footprints.put(skyHopper, new Footprint(location.worldId(), sectionKeys));
+        pendingSkyHoppers.add(skyHopper);
+    }
+
+    /**
+     * Removes a {@link SkyHopper} from the index.
+     * @param skyHopper The {@link SkyHopper} to remove.
+     */
+    public void remove(@NotNull SkyHopper skyHopper) {
+        pendingSkyHoppers.remove(skyHopper);
+
+        Footprint footprint = footprints.remove(skyHopper);
+        if(footprint == null) return;
+
+        Map<Long, Set<SkyHopper>> worldSections = skyHoppersBySection.get(footprint.worldId());
+        if(worldSections == null) return;
+
+        for(long sectionKey : footprint.sectionKeys()) {
+            Set<SkyHopper> skyHoppers = worldSections.get(sectionKey);
+            if(skyHoppers == null) continue;
+
+            skyHoppers.remove(skyHopper);
+            if(skyHoppers.isEmpty()) worldSections.remove(sectionKey);
+        }
+
+        if(worldSections.isEmpty()) skyHoppersBySection.remove(footprint.worldId());
+    }
+
+    /**
+     * Marks the {@link SkyHopper}s whose suction range overlaps a section as pending.
+     * Called when an item enters the section.
+     * @param worldId The {@link UUID} of the section's world.
+     * @param sectionKey The section key.
+     */
+    public void markSection(@NotNull UUID worldId, long sectionKey) {
+        Map<Long, Set<SkyHopper>> worldSections = skyHoppersBySection.get(worldId);
+        if(worldSections == null) return;
+
+        Set<SkyHopper> skyHoppers = worldSections.get(sectionKey);
+        if(skyHoppers == null) return;
+
+        pendingSkyHoppers.addAll(skyHoppers);
+    }
+
+    /**
+     * Checks if a {@link SkyHopper} may have items in its suction range.
+     * @param skyHopper The {@link SkyHopper} to check.
+     * @return true if the {@link SkyHopper} is pending, otherwise false.
+     */
+    public boolean isPending(@NotNull SkyHopper skyHopper) {
+        return pendingSkyHoppers.contains(skyHopper);
+    }
+
+    /**
+     * Marks a {@link SkyHopper} as having no items in the sections its suction range overlaps.
+     * @param skyHopper The {@link SkyHopper}.
+     */
+    public void clearPending(@NotNull SkyHopper skyHopper) {
+        pendingSkyHoppers.remove(skyHopper);
+    }
+
+    /**
+     * Removes all {@link SkyHopper}s from the index.
+     */
+    public void clear() {
+        skyHoppersBySection.clear();
+        footprints.clear();
+        pendingSkyHoppers.clear();
+    }
+
+    /**
+     * The sections a {@link SkyHopper} was added to.
+     * @param worldId The {@link UUID} of the {@link SkyHopper}'s world.
+     * @param sectionKeys The keys of the sections.
+     */
+    private record Footprint(@NotNull UUID worldId, @NotNull List<@NotNull Long> sectionKeys) {}
+}
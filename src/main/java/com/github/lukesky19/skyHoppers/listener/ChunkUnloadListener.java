@@ -0,0 +1,48 @@
+/*
+    SkyHoppers adds upgradable hoppers that can suction items, transfer items wirelessly to linked containers.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyHoppers.listener;
+
+import com.github.lukesky19.skyHoppers.manager.HopperManager;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkUnloadEvent;
+
+/**
+ * This class listens for when a chunk is unloaded and unloads any SkyHoppers in those chunks.
+ */
+public class ChunkUnloadListener implements Listener {
+    private final HopperManager hopperManager;
+
+    /**
+     * Constructor
+     * @param hopperManager A HopperManager Instance.
+     */
+    public ChunkUnloadListener(HopperManager hopperManager) {
+        this.hopperManager = hopperManager;
+    }
+
+    /**
+     * Listens to when a chunk is unloaded and unloads the SkyHoppers in that chunk.
+     * @param chunkUnloadEvent A ChunkUnloadEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent chunkUnloadEvent) {
+        hopperManager.unloadSkyHoppersInChunk(chunkUnloadEvent.getChunk());
+    }
+}
@@ -21,6 +21,7 @@ import com.github.lukesky19.skyHoppers.SkyHoppers;
 import com.github.lukesky19.skyHoppers.manager.GUIConfigManager;
 import com.github.lukesky19.skyHoppers.manager.LocaleManager;
 import com.github.lukesky19.skyHoppers.manager.SettingsManager;
+import com.github.lukesky19.skyHoppers.data.BlockLocation;
 import com.github.lukesky19.skyHoppers.data.config.Locale;
 import com.github.lukesky19.skyHoppers.gui.menu.HopperGUI;
 import com.github.lukesky19.skyHoppers.hopper.*;
@@ -54,7 +55,7 @@ public class HopperClickListener implements Listener {
     private final @NotNull HookManager hookManager;
     private final @NotNull GUIManager guiManager;
 
-    private final @NotNull Map<UUID, Location> linkingPlayers = new HashMap<>();
+    private final @NotNull Map<UUID, BlockLocation> linkingPlayers = new HashMap<>();
 
     /**
      * Constructor
@@ -98,7 +99,7 @@ public class HopperClickListener implements Listener {
      * @param location The Location of the SkyHopper being linked to.
      */
     public void addLinkingPlayer(@NotNull Player player, @NotNull Location location) {
-        linkingPlayers.put(player.getUniqueId(), location);
+        linkingPlayers.put(player.getUniqueId(), BlockLocation.of(location));
     }
 
     /**
@@ -107,14 +108,15 @@ public class HopperClickListener implements Listener {
      */
     public void disableLinkingForLocation(@NotNull Location location) {
         Locale locale = localeManager.getLocale();
+        BlockLocation blockLocation = BlockLocation.of(location);
 
-        Iterator<Map.Entry<UUID, Location>> iterator = linkingPlayers.entrySet().iterator();
+        Iterator<Map.Entry<UUID, BlockLocation>> iterator = linkingPlayers.entrySet().iterator();
         while(iterator.hasNext()) {
-            Map.Entry<UUID, Location> entry = iterator.next();
+            Map.Entry<UUID, BlockLocation> entry = iterator.next();
             UUID uuid = entry.getKey();
-            Location iteratorLocation = entry.getValue();
+            BlockLocation iteratorLocation = entry.getValue();
 
-            if(iteratorLocation.equals(location)) {
+            if(iteratorLocation.equals(blockLocation)) {
                 iterator.remove();
 
                 Player player = skyHoppers.getServer().getPlayer(uuid);
@@ -140,14 +142,12 @@ public class HopperClickListener implements Listener {
         if(!playerInteractEvent.hasBlock() || block == null) return;
 
         // Extra check if a Hopper is a SkyHopper and it wasn't loaded.
-        Location location = block.getLocation();
-        if(hopperManager.getSkyHopper(location) == null) {
-            // Chunk should already be loaded so performance costs aren't an issue
-            hopperManager.loadSkyHopperAtLocation(location);
-        }
+        hopperManager.loadSkyHopperAtBlock(block);
 
         if(playerInteractEvent.getAction() != Action.LEFT_CLICK_BLOCK) return;
 
+        Location location = block.getLocation();
+
         if(isPlayerLinking(uuid)) {
             if (!(block.getState(false) instanceof Container container)) return;
 
@@ -167,11 +167,12 @@ public class HopperClickListener implements Listener {
 
             playerInteractEvent.setCancelled(true);
 
-            SkyHopper targetSkyHopper = hopperManager.getSkyHopper(container.getLocation());
+            BlockLocation containerLocation = BlockLocation.of(container);
+            SkyHopper targetSkyHopper = hopperManager.getSkyHopper(containerLocation);
             if(targetSkyHopper != null
-                    && targetSkyHopper.getLocation() != null
-                    && linkingSkyHopper.getLocation() != null
-                    && linkingSkyHopper.getLocation().equals(targetSkyHopper.getLocation())) {
+                    && targetSkyHopper.getBlockLocation() != null
+                    && linkingSkyHopper.getBlockLocation() != null
+                    && linkingSkyHopper.getBlockLocation().equals(targetSkyHopper.getBlockLocation())) {
                 linkingPlayers.remove(player.getUniqueId());
 
                 player.sendMessage(AdventureUtil.serialize(locale.prefix() + locale.linkingDisabled()));
@@ -179,22 +180,18 @@ public class HopperClickListener implements Listener {
                 return;
             }
 
-            if(linkingSkyHopper.getLocation() != null) {
-                Iterator<SkyContainer> iterator = linkingSkyHopper.getLinkedContainers().iterator();
-                while(iterator.hasNext()) {
-                    SkyContainer skyContainer = iterator.next();
-
-                    if(skyContainer.getLocation().equals(container.getLocation())) {
-                        iterator.remove();
+            if(linkingSkyHopper.getBlockLocation() != null) {
+                SkyContainer skyContainer = linkingSkyHopper.getLinkedContainer(containerLocation);
+                if(skyContainer != null) {
+                    linkingSkyHopper.removeLinkedContainer(skyContainer);
 
-                        hopperManager.saveSkyHopperToPDC(linkingSkyHopper);
+                    hopperManager.saveSkyHopperToPDC(linkingSkyHopper);
 
-                        guiManager.refreshViewersGUI(location);
+                    guiManager.refreshViewersGUI(location);
 
-                        player.sendMessage(AdventureUtil.serialize(locale.prefix() + locale.containerUnlinked()));
+                    player.sendMessage(AdventureUtil.serialize(locale.prefix() + locale.containerUnlinked()));
 
-                        return;
-                    }
+                    return;
                 }
             }
 
@@ -18,6 +18,7 @@
 package com.github.lukesky19.skyHoppers.listener;
 
 import com.github.lukesky19.skyHoppers.SkyHoppers;
+import com.github.lukesky19.skyHoppers.data.BlockLocation;
 import com.github.lukesky19.skyHoppers.data.DelayedEntry;
 import com.github.lukesky19.skyHoppers.hopper.SkyHopper;
 import com.github.lukesky19.skyHoppers.manager.HopperManager;
@@ -61,12 +62,18 @@ public class HopperMoveItemListener implements Listener {
         Inventory sourceInventory = inventoryMoveItemEvent.getSource();
         Inventory destinationInventory = inventoryMoveItemEvent.getDestination();
 
+        // Most moves are between vanilla hoppers and containers, so skip them before creating any BlockStates.
+        Location sourceLocation = sourceInventory.getLocation();
+        Location destinationLocation = destinationInventory.getLocation();
+        if((sourceLocation == null || !hopperManager.isSkyHopperLocation(sourceLocation))
+                && (destinationLocation == null || !hopperManager.isSkyHopperLocation(destinationLocation))) return;
+
         if (initiatorInventory.getHolder(false) instanceof Container initiator
                 && destinationInventory.getHolder(false) instanceof Container destination) {
             if(sourceInventory.getHolder(false) instanceof Container source) {
-                SkyHopper initiatorSkyHopper = hopperManager.getSkyHopper(initiator.getLocation());
-                SkyHopper sourceSkyHopper = hopperManager.getSkyHopper(source.getLocation());
-                SkyHopper destinationSkyHopper = hopperManager.getSkyHopper(destination.getLocation());
+                SkyHopper initiatorSkyHopper = hopperManager.getSkyHopper(BlockLocation.of(initiator));
+                SkyHopper sourceSkyHopper = hopperManager.getSkyHopper(BlockLocation.of(source));
+                SkyHopper destinationSkyHopper = hopperManager.getSkyHopper(BlockLocation.of(destination));
 
                 if((sourceSkyHopper == null && destinationSkyHopper == null) || initiatorSkyHopper == null) return;
 
@@ -86,9 +93,9 @@ public class HopperMoveItemListener implements Listener {
 
                             sourceSkyHopper.setNextTransferTime(time);
 
-                            if(sourceSkyHopper.getLocation() == null) return;
+                            if(sourceSkyHopper.getBlockLocation() == null) return;
 
-                            delayedTask.add(sourceSkyHopper.getLocation(), new DelayedEntry(source.getLocation(), destination.getLocation(), false, true));
+                            delayedTask.add(sourceSkyHopper.getBlockLocation(), new DelayedEntry(BlockLocation.of(source), BlockLocation.of(destination), false, true));
                         }
                     } else if(initiatorSkyHopper.equals(destinationSkyHopper)) {
                         if (destinationSkyHopper.getNextSuctionTime() < System.currentTimeMillis()) {
@@ -99,9 +106,9 @@ public class HopperMoveItemListener implements Listener {
 
                             destinationSkyHopper.setNextSuctionTime(time);
 
-                            if(destinationSkyHopper.getLocation() == null) return;
+                            if(destinationSkyHopper.getBlockLocation() == null) return;
 
-                            delayedTask.add(destinationSkyHopper.getLocation(), new DelayedEntry(source.getLocation(), destination.getLocation(), false, false));
+                            delayedTask.add(destinationSkyHopper.getBlockLocation(), new DelayedEntry(BlockLocation.of(source), BlockLocation.of(destination), false, false));
                         }
                     }
                 } else if(sourceSkyHopper != null) {
@@ -110,8 +117,8 @@ public class HopperMoveItemListener implements Listener {
                     if (!sourceSkyHopper.isSkyHopperEnabled()) return;
 
                     if (sourceSkyHopper.getNextTransferTime() < System.currentTimeMillis()) {
-                        if(sourceSkyHopper.getLocation() == null) return;
-                        delayedTask.add(sourceSkyHopper.getLocation(), new DelayedEntry(source.getLocation(), destination.getLocation(), false, true));
+                        if(sourceSkyHopper.getBlockLocation() == null) return;
+                        delayedTask.add(sourceSkyHopper.getBlockLocation(), new DelayedEntry(BlockLocation.of(source), BlockLocation.of(destination), false, true));
                     }
                 } else {
                     inventoryMoveItemEvent.setCancelled(true);
@@ -119,14 +126,14 @@ public class HopperMoveItemListener implements Listener {
                     if(!destinationSkyHopper.isSkyHopperEnabled()) return;
 
                     if (destinationSkyHopper.getNextSuctionTime() < System.currentTimeMillis()) {
-                        if(destinationSkyHopper.getLocation() == null) return;
-                        delayedTask.add(destinationSkyHopper.getLocation(), new DelayedEntry(source.getLocation(), destination.getLocation(), true, false));
+                        if(destinationSkyHopper.getBlockLocation() == null) return;
+                        delayedTask.add(destinationSkyHopper.getBlockLocation(), new DelayedEntry(BlockLocation.of(source), BlockLocation.of(destination), true, false));
                     }
                 }
             } else if(sourceInventory.getHolder(false) instanceof DoubleChest doubleChest) {
                 if(doubleChest.getLeftSide(false) instanceof Container leftContainer
                         && doubleChest.getRightSide(false) instanceof Container rightContainer) {
-                    SkyHopper destinationSkyHopper = hopperManager.getSkyHopper(destination.getLocation());
+                    SkyHopper destinationSkyHopper = hopperManager.getSkyHopper(BlockLocation.of(destination));
                     if(destinationSkyHopper == null) return;
 
                     inventoryMoveItemEvent.setCancelled(true);
@@ -134,14 +141,16 @@ public class HopperMoveItemListener implements Listener {
                     if (!destinationSkyHopper.isSkyHopperEnabled()) return;
 
                     if(destinationSkyHopper.getNextSuctionTime() < System.currentTimeMillis()) {
-                        Location skyHopperLocation = destinationSkyHopper.getLocation();
+                        BlockLocation skyHopperLocation = destinationSkyHopper.getBlockLocation();
                         if(skyHopperLocation == null) return;
-                        Location containerLocation = new Location(skyHopperLocation.getWorld(), skyHopperLocation.x(), skyHopperLocation.y() + 1, skyHopperLocation.z());
-
-                        if(containerLocation.equals(leftContainer.getLocation())) {
-                            delayedTask.add(skyHopperLocation, new DelayedEntry(leftContainer.getLocation(), destination.getLocation(), true, false));
-                        } else if(containerLocation.equals(rightContainer.getLocation())) {
-                            delayedTask.add(skyHopperLocation, new DelayedEntry(rightContainer.getLocation(), destination.getLocation(), true, false));
+                        BlockLocation containerLocation = new BlockLocation(skyHopperLocation.worldId(), skyHopperLocation.x(), skyHopperLocation.y() + 1, skyHopperLocation.z());
+
+                        BlockLocation leftLocation = BlockLocation.of(leftContainer);
+                        BlockLocation rightLocation = BlockLocation.of(rightContainer);
+                        if(containerLocation.equals(leftLocation)) {
+                            delayedTask.add(skyHopperLocation, new DelayedEntry(leftLocation, BlockLocation.of(destination), true, false));
+                        } else if(containerLocation.equals(rightLocation)) {
+                            delayedTask.add(skyHopperLocation, new DelayedEntry(rightLocation, BlockLocation.of(destination), true, false));
                         }
                     }
                 }
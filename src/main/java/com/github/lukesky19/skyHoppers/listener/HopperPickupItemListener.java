@@ -20,11 +20,9 @@ package com.github.lukesky19.skyHoppers.listener;
 import com.github.lukesky19.skyHoppers.SkyHoppers;
 import com.github.lukesky19.skyHoppers.hopper.SkyHopper;
 import com.github.lukesky19.skyHoppers.manager.HopperManager;
+import com.github.lukesky19.skyHoppers.task.ParticleTask;
 import com.github.lukesky19.skylib.api.adventure.AdventureUtil;
 import net.kyori.adventure.text.logger.slf4j.ComponentLogger;
-import org.bukkit.Color;
-import org.bukkit.Location;
-import org.bukkit.Particle;
 import org.bukkit.block.Hopper;
 import org.bukkit.entity.Item;
 import org.bukkit.event.EventHandler;
@@ -36,8 +34,6 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.ItemType;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.List;
-
 import static com.github.lukesky19.skyHoppers.util.InventoryUtils.addGroundItemToInventory;
 import static com.github.lukesky19.skyHoppers.util.RoseStackerUtils.getItemAmount;
 import static com.github.lukesky19.skyHoppers.util.RoseStackerUtils.removeAmountFromGroundItem;
@@ -49,16 +45,19 @@ public class HopperPickupItemListener implements Listener {
     private final @NotNull SkyHoppers plugin;
     private final @NotNull ComponentLogger logger;
     private final @NotNull HopperManager hopperManager;
+    private final @NotNull ParticleTask particleTask;
 
     /**
      * Constructor
      * @param plugin The {@link SkyHoppers} instance.
      * @param hopperManager A {@link HopperManager} instance.
+     * @param particleTask A {@link ParticleTask} instance.
      */
-    public HopperPickupItemListener(@NotNull SkyHoppers plugin, @NotNull HopperManager hopperManager) {
+    public HopperPickupItemListener(@NotNull SkyHoppers plugin, @NotNull HopperManager hopperManager, @NotNull ParticleTask particleTask) {
         this.plugin = plugin;
         this.logger = plugin.getComponentLogger();
         this.hopperManager = hopperManager;
+        this.particleTask = particleTask;
     }
 
     /**
@@ -98,101 +97,35 @@ public class HopperPickupItemListener implements Listener {
             return;
         }
 
-        // Get the SkyHopper's location
-        Location location = skyHopper.getLocation();
         // Get the Hopper's Inventory
         Inventory hopperInv = hopper.getSnapshotInventory();
 
-        switch(skyHopper.getFilterType()) {
-            case NONE -> {
+        switch(skyHopper.getCompiledFilter().getAction(suctionItemType)) {
+            case ACCEPT -> {
                 int result = addGroundItemToInventory(item, itemAmount, suctionItem, hopperInv, skyHopper.getSuctionAmount());
 
                 if(result > 0) {
                     if(skyHopper.isParticlesEnabled()) {
-                        // Highlight hopper that sucked up the item
-                        hopper.getWorld().spawnParticle(Particle.DUST, location, 5, 0.0, 0.0, 0.0, 0.0, new Particle.DustOptions(Color.YELLOW, 1));
-
-                        // Highlight the item that was sucked up
-                        item.getWorld().spawnParticle(Particle.WITCH, item.getLocation(), 3, 0.0, 0.0, 0.0, 0.0);
+                        particleTask.queuePickupEffect(hopper, item);
                     }
 
                     updateSuctionTime(skyHopper);
                 }
             }
 
-            case WHITELIST -> {
-                List<ItemType> filterItems = skyHopper.getFilterItems();
-                if (!filterItems.isEmpty() && filterItems.contains(suctionItemType)) {
-                    int result = addGroundItemToInventory(item, itemAmount, suctionItem, hopperInv, skyHopper.getSuctionAmount());
-
-                    if(result > 0) {
-                        if (skyHopper.isParticlesEnabled()) {
-                            // Highlight hopper that sucked up the item
-                            hopper.getWorld().spawnParticle(Particle.DUST, location, 5, 0.0, 0.0, 0.0, 0.0, new Particle.DustOptions(Color.YELLOW, 1));
-
-                            // Highlight the item that was sucked up
-                            item.getWorld().spawnParticle(Particle.WITCH, item.getLocation(), 3, 0.0, 0.0, 0.0, 0.0);
-                        }
-
-                        updateSuctionTime(skyHopper);
-                    }
-                }
-            }
-
-            case BLACKLIST -> {
-                List<ItemType> filterItems = skyHopper.getFilterItems();
-
-                if(!filterItems.isEmpty() && !filterItems.contains(suctionItemType)) {
-                    int result = addGroundItemToInventory(item, itemAmount, suctionItem, hopperInv, skyHopper.getSuctionAmount());
-
-                    if(result > 0) {
-                        if (skyHopper.isParticlesEnabled()) {
-                            // Highlight hopper that sucked up the item
-                            hopper.getWorld().spawnParticle(Particle.DUST, location, 5, 0.0, 0.0, 0.0, 0.0, new Particle.DustOptions(Color.YELLOW, 1));
-
-                            // Highlight the item that was sucked up
-                            item.getWorld().spawnParticle(Particle.WITCH, item.getLocation(), 3, 0.0, 0.0, 0.0, 0.0);
-                        }
-
-                        updateSuctionTime(skyHopper);
-                    }
-                }
-            }
-
             case DESTROY -> {
-                List<ItemType> filterItems = skyHopper.getFilterItems();
-                if(!filterItems.isEmpty() && filterItems.contains(suctionItemType)) {
-                    // Get the amount to be destroyed
-                    int destroyAmount = Math.min(itemAmount, skyHopper.getSuctionAmount());
-                    removeAmountFromGroundItem(item, itemAmount, destroyAmount);
-
-                    if(skyHopper.isParticlesEnabled()) {
-                        // Highlight hopper that sucked up the item
-                        hopper.getWorld().spawnParticle(Particle.DUST, location, 5, 0.0, 0.0, 0.0, 0.0, new Particle.DustOptions(Color.YELLOW, 1));
-
-                        // Highlight the item that was sucked up
-                        item.getWorld().spawnParticle(Particle.WITCH, item.getLocation(), 3, 0.0, 0.0, 0.0, 0.0);
-                    }
-
-                    updateSuctionTime(skyHopper);
+                // Get the amount to be destroyed
+                int destroyAmount = Math.min(itemAmount, skyHopper.getSuctionAmount());
+                removeAmountFromGroundItem(item, itemAmount, destroyAmount);
 
-                    return;
+                if(skyHopper.isParticlesEnabled()) {
+                    particleTask.queuePickupEffect(hopper, item);
                 }
 
-                int result = addGroundItemToInventory(item, itemAmount, suctionItem, hopperInv, skyHopper.getSuctionAmount());
-
-                if(result > 0) {
-                    if (skyHopper.isParticlesEnabled()) {
-                        // Highlight hopper that sucked up the item
-                        hopper.getWorld().spawnParticle(Particle.DUST, location, 5, 0.0, 0.0, 0.0, 0.0, new Particle.DustOptions(Color.YELLOW, 1));
-
-                        // Highlight the item that was sucked up
-                        item.getWorld().spawnParticle(Particle.WITCH, item.getLocation(), 3, 0.0, 0.0, 0.0, 0.0);
-                    }
-
-                    updateSuctionTime(skyHopper);
-                }
+                updateSuctionTime(skyHopper);
             }
+
+            case REJECT -> {}
         }
     }
 
@@ -0,0 +1,65 @@
+/*
+    SkyHoppers adds upgradable hoppers that can suction items, transfer items wirelessly to linked containers.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyHoppers.listener;
+
+import com.destroystokyo.paper.event.entity.EntityAddToWorldEvent;
+import com.destroystokyo.paper.event.entity.EntityRemoveFromWorldEvent;
+import com.github.lukesky19.skyHoppers.hopper.ItemEntityIndex;
+import org.bukkit.entity.Item;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * This class listens for when item entities are added to or removed from a world to keep the {@link ItemEntityIndex} up to date.
+ * Spawning, dropping, and chunk loads add items, while pickups, merges, despawns, and chunk unloads remove them.
+ */
+public class ItemEntityListener implements Listener {
+    private final @NotNull ItemEntityIndex itemEntityIndex;
+
+    /**
+     * Constructor
+     * @param itemEntityIndex An {@link ItemEntityIndex} instance.
+     */
+    public ItemEntityListener(@NotNull ItemEntityIndex itemEntityIndex) {
+        this.itemEntityIndex = itemEntityIndex;
+    }
+
+    /**
+     * Listens for when an entity is added to a world and indexes it if it is an {@link Item}.
+     * @param entityAddToWorldEvent An {@link EntityAddToWorldEvent}
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityAddToWorld(EntityAddToWorldEvent entityAddToWorldEvent) {
+        if(entityAddToWorldEvent.getEntity() instanceof Item item) {
+            itemEntityIndex.add(item);
+        }
+    }
+
+    /**
+     * Listens for when an entity is removed from a world and removes it from the index if it is an {@link Item}.
+     * @param entityRemoveFromWorldEvent An {@link EntityRemoveFromWorldEvent}
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityRemoveFromWorld(EntityRemoveFromWorldEvent entityRemoveFromWorldEvent) {
+        if(entityRemoveFromWorldEvent.getEntity() instanceof Item item) {
+            itemEntityIndex.remove(item);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+    SkyHoppers adds upgradable hoppers that can suction items, transfer items wirelessly to linked containers.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyHoppers.listener;
+
+import com.github.lukesky19.skyHoppers.data.BlockLocation;
+import com.github.lukesky19.skyHoppers.manager.HopperManager;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.*;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.inventory.InventoryMoveItemEvent;
+import org.bukkit.inventory.Inventory;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * This class listens for block changes that can replace a linked container so its cached Container is resolved again.
+ * It also listens for inventory changes that can make room in a linked container that was found full.
+ */
+public class LinkedContainerChangeListener implements Listener {
+    private final @NotNull HopperManager hopperManager;
+
+    /**
+     * Constructor
+     * @param hopperManager A {@link HopperManager} instance.
+     */
+    public LinkedContainerChangeListener(@NotNull HopperManager hopperManager) {
+        this.hopperManager = hopperManager;
+    }
+
+    /**
+     * Listens for when a block is placed.
+     * @param blockPlaceEvent A {@link BlockPlaceEvent}
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent blockPlaceEvent) {
+        invalidate(blockPlaceEvent.getBlock());
+    }
+
+    /**
+     * Listens for when a block is broken.
+     * @param blockBreakEvent A {@link BlockBreakEvent}
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBreak(BlockBreakEvent blockBreakEvent) {
+        invalidate(blockBreakEvent.getBlock());
+    }
+
+    /**
+     * Listens for when a block explodes.
+     * @param blockExplodeEvent A {@link BlockExplodeEvent}
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent blockExplodeEvent) {
+        blockExplodeEvent.blockList().forEach(this::invalidate);
+    }
+
+    /**
+     * Listens for when an entity explodes.
+     * @param entityExplodeEvent An {@link EntityExplodeEvent}
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent entityExplodeEvent) {
+        entityExplodeEvent.blockList().forEach(this::invalidate);
+    }
+
+    /**
+     * Listens for when a piston extends.
+     * @param blockPistonExtendEvent A {@link BlockPistonExtendEvent}
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonExtend(BlockPistonExtendEvent blockPistonExtendEvent) {
+        invalidateMoved(blockPistonExtendEvent.getBlocks(), blockPistonExtendEvent.getDirection());
+    }
+
+    /**
+     * Listens for when a piston retracts.
+     * @param blockPistonRetractEvent A {@link BlockPistonRetractEvent}
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonRetract(BlockPistonRetractEvent blockPistonRetractEvent) {
+        invalidateMoved(blockPistonRetractEvent.getBlocks(), blockPistonRetractEvent.getDirection());
+    }
+
+    /**
+     * Listens for when a player clicks in an inventory, which may take items out of a linked container.
+     * @param inventoryClickEvent An {@link InventoryClickEvent}
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryClick(InventoryClickEvent inventoryClickEvent) {
+        hopperManager.handleInventoryChanged(inventoryClickEvent.getView().getTopInventory());
+    }
+
+    /**
+     * Listens for when a player drags items in an inventory.
+     * @param inventoryDragEvent An {@link InventoryDragEvent}
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryDrag(InventoryDragEvent inventoryDragEvent) {
+        hopperManager.handleInventoryChanged(inventoryDragEvent.getView().getTopInventory());
+    }
+
+    /**
+     * Listens for when an item is moved out of an inventory by a hopper or dropper.
+     * Moves that SkyHoppers cancel are handled when the SkyHopper does the move later.
+     * Moves between containers that aren't linked are ignored without resolving their holders.
+     * @param inventoryMoveItemEvent An {@link InventoryMoveItemEvent}
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryMoveItem(InventoryMoveItemEvent inventoryMoveItemEvent) {
+        if(hopperManager.getContainerCapacityCache().isEmpty()) return;
+
+        Inventory source = inventoryMoveItemEvent.getSource();
+        Inventory destination = inventoryMoveItemEvent.getDestination();
+
+        boolean sourceLinked = hopperManager.isLinkedContainer(source);
+        boolean destinationLinked = hopperManager.isLinkedContainer(destination);
+        if(!sourceLinked && !destinationLinked) return;
+
+        if(sourceLinked) hopperManager.handleInventoryChanged(source);
+        if(destinationLinked) hopperManager.handleInventoryChanged(destination);
+    }
+
+    /**
+     * Invalidates the blocks moved by a piston and the blocks they are moved into.
+     * @param blocks The {@link List} of {@link Block}s moved.
+     * @param direction The {@link BlockFace} the blocks are moved towards.
+     */
+    private void invalidateMoved(@NotNull List<Block> blocks, @NotNull BlockFace direction) {
+        for(Block block : blocks) {
+            invalidate(block);
+            invalidate(block.getRelative(direction));
+        }
+    }
+
+    /**
+     * Clears the cached Container of any linked container at the {@link Block}'s location.
+     * @param block The {@link Block} that changed.
+     */
+    private void invalidate(@NotNull Block block) {
+        hopperManager.invalidateLinkedContainer(BlockLocation.of(block));
+    }
+}
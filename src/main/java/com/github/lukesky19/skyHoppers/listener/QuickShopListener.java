@@ -0,0 +1,91 @@
+/*
+    SkyHoppers adds upgradable hoppers that can suction items, transfer items wirelessly to linked containers.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyHoppers.listener;
+
+import com.ghostchu.quickshop.api.event.management.ShopCreateEvent;
+import com.ghostchu.quickshop.api.event.management.ShopDeleteEvent;
+import com.github.lukesky19.skyHoppers.data.BlockLocation;
+import com.github.lukesky19.skyHoppers.hook.shop.QuickShopHook;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * This class listens for changes that affect which containers are QuickShop shops, to keep the {@link QuickShopHook}'s shop cache up to date.
+ * Only registered when QuickShop-Hikari is enabled.
+ */
+public class QuickShopListener implements Listener {
+    private final @NotNull QuickShopHook quickShopHook;
+
+    /**
+     * Constructor
+     * @param quickShopHook A {@link QuickShopHook} instance.
+     */
+    public QuickShopListener(@NotNull QuickShopHook quickShopHook) {
+        this.quickShopHook = quickShopHook;
+    }
+
+    /**
+     * Listens for when a shop is created.
+     * @param shopCreateEvent A {@link ShopCreateEvent}
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onShopCreate(ShopCreateEvent shopCreateEvent) {
+        quickShopHook.handleShopChanged();
+    }
+
+    /**
+     * Listens for when a shop is deleted.
+     * @param shopDeleteEvent A {@link ShopDeleteEvent}
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onShopDelete(ShopDeleteEvent shopDeleteEvent) {
+        quickShopHook.handleShopChanged();
+    }
+
+    /**
+     * Listens for when a block is placed, which can attach a container to a shop.
+     * @param blockPlaceEvent A {@link BlockPlaceEvent}
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent blockPlaceEvent) {
+        quickShopHook.invalidate(BlockLocation.of(blockPlaceEvent.getBlock()));
+    }
+
+    /**
+     * Listens for when a block is broken.
+     * @param blockBreakEvent A {@link BlockBreakEvent}
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBreak(BlockBreakEvent blockBreakEvent) {
+        quickShopHook.invalidate(BlockLocation.of(blockBreakEvent.getBlock()));
+    }
+
+    /**
+     * Listens for when a chunk is unloaded and forgets the shops cached in it.
+     * @param chunkUnloadEvent A {@link ChunkUnloadEvent}
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent chunkUnloadEvent) {
+        quickShopHook.invalidateChunk(chunkUnloadEvent.getWorld().getUID(), chunkUnloadEvent.getChunk().getChunkKey());
+    }
+}
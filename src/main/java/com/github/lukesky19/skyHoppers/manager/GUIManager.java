@@ -18,6 +18,7 @@
 package com.github.lukesky19.skyHoppers.manager;
 
 import com.github.lukesky19.skyHoppers.SkyHoppers;
+import com.github.lukesky19.skyHoppers.data.BlockLocation;
 import com.github.lukesky19.skyHoppers.gui.SkyHopperGUI;
 import com.github.lukesky19.skyHoppers.gui.menu.filter.OutputFilterGUI;
 import com.github.lukesky19.skyHoppers.hopper.SkyHopper;
@@ -35,7 +36,8 @@ import java.util.UUID;
  */
 public class GUIManager {
     private final @NotNull SkyHoppers skyHoppers;
-    private final @NotNull Map<Location, Map<UUID, SkyHopperGUI>> openGUIsByLocationAndPlayer = new HashMap<>();
+    private final @NotNull Map<BlockLocation, Map<UUID, SkyHopperGUI>> openGUIsByLocationAndPlayer = new HashMap<>();
+    private final @NotNull Map<UUID, SkyHopperGUI> openGUIsByPlayer = new HashMap<>();
 
     /**
      * Constructor
@@ -51,18 +53,7 @@ public class GUIManager {
      * @return The {@link SkyHopperGUI} the player is viewing or null.
      */
     public @Nullable SkyHopperGUI getGuiByUUID(@NotNull UUID uuid) {
-        for(Map.Entry<Location, Map<UUID, SkyHopperGUI>> locationEntry : openGUIsByLocationAndPlayer.entrySet()) {
-            Map<UUID, SkyHopperGUI> viewers = locationEntry.getValue();
-
-            for(Map.Entry<UUID, SkyHopperGUI> viewerEntry : viewers.entrySet()) {
-                UUID viewerUuid = viewerEntry.getKey();
-                if(viewerUuid.equals(uuid)) {
-                    return viewerEntry.getValue();
-                }
-            }
-        }
-
-        return null;
+        return openGUIsByPlayer.get(uuid);
     }
 
     /**
@@ -72,10 +63,12 @@ public class GUIManager {
      * @param gui The GUI the Player is viewing.
      */
     public void addViewer(@NotNull Location location, @NotNull UUID viewer, @NotNull SkyHopperGUI gui) {
-        Map<UUID, SkyHopperGUI> uuidGuiMap = openGUIsByLocationAndPlayer.getOrDefault(location, new HashMap<>());
+        BlockLocation blockLocation = BlockLocation.of(location);
+        Map<UUID, SkyHopperGUI> uuidGuiMap = openGUIsByLocationAndPlayer.getOrDefault(blockLocation, new HashMap<>());
 
         uuidGuiMap.put(viewer, gui);
-        openGUIsByLocationAndPlayer.put(location, uuidGuiMap);
+        openGUIsByLocationAndPlayer.put(blockLocation, uuidGuiMap);
+        openGUIsByPlayer.put(viewer, gui);
     }
 
     /**
@@ -84,15 +77,19 @@ public class GUIManager {
      * @param viewer The Player's UUID who was viewing the SkyHopper's settings.
      */
     public void removeViewer(Location location, UUID viewer) {
-        Map<UUID, SkyHopperGUI> uuidGuiMap = openGUIsByLocationAndPlayer.get(location);
+        BlockLocation blockLocation = BlockLocation.of(location);
+        Map<UUID, SkyHopperGUI> uuidGuiMap = openGUIsByLocationAndPlayer.get(blockLocation);
         if(uuidGuiMap == null) return;
 
-        uuidGuiMap.remove(viewer);
+        SkyHopperGUI gui = uuidGuiMap.remove(viewer);
+
+        // Only remove the player's GUI if they haven't opened a GUI for another SkyHopper since
+        if(gui != null) openGUIsByPlayer.remove(viewer, gui);
 
         if(uuidGuiMap.isEmpty()) {
-            openGUIsByLocationAndPlayer.remove(location);
+            openGUIsByLocationAndPlayer.remove(blockLocation);
         } else {
-            openGUIsByLocationAndPlayer.put(location, uuidGuiMap);
+            openGUIsByLocationAndPlayer.put(blockLocation, uuidGuiMap);
         }
     }
 
@@ -101,6 +98,14 @@ public class GUIManager {
      * @param location The Location of the SkyHopper.
      */
     public void refreshViewersGUI(@NotNull Location location) {
+        refreshViewersGUI(BlockLocation.of(location));
+    }
+
+    /**
+     * Refreshes all players viewing a SkyHopper's settings at the given BlockLocation.
+     * @param location The BlockLocation of the SkyHopper.
+     */
+    public void refreshViewersGUI(@NotNull BlockLocation location) {
         Map<UUID, SkyHopperGUI> uuidGuiMap = openGUIsByLocationAndPlayer.get(location);
         if(uuidGuiMap == null) return;
 
@@ -125,6 +130,14 @@ public class GUIManager {
      * @param location The {@link Location} of the {@link SkyHopper}.
      */
     public void closeOutputFilterGUIs(@NotNull Location location) {
+        closeOutputFilterGUIs(BlockLocation.of(location));
+    }
+
+    /**
+     * Closes any open {@link OutputFilterGUI}s for the provided {@link SkyHopper}'s {@link BlockLocation}.
+     * @param location The {@link BlockLocation} of the {@link SkyHopper}.
+     */
+    public void closeOutputFilterGUIs(@NotNull BlockLocation location) {
         Map<UUID, SkyHopperGUI> uuidGuiMap = openGUIsByLocationAndPlayer.get(location);
         if(uuidGuiMap == null) return;
 
@@ -151,6 +164,14 @@ public class GUIManager {
      * @param location The {@link Location} of the {@link SkyHopper} to close GUIs for.
      */
     public void closeOpenGUIsForLocation(@NotNull Location location) {
+        closeOpenGUIsForLocation(BlockLocation.of(location));
+    }
+
+    /**
+     * Close any open {@link SkyHopperGUI}s for the {@link BlockLocation} provided.
+     * @param location The {@link BlockLocation} of the {@link SkyHopper} to close GUIs for.
+     */
+    public void closeOpenGUIsForLocation(@NotNull BlockLocation location) {
         Map<UUID, SkyHopperGUI> uuidGuiMap = openGUIsByLocationAndPlayer.get(location);
         if(uuidGuiMap == null) return;
 
@@ -175,7 +196,7 @@ public class GUIManager {
      * @param onDisable Is the plugin being disabled?
      */
     public void closeOpenGUIs(boolean onDisable) {
-        for(Map.Entry<Location, Map<UUID, SkyHopperGUI>> locationMapEntry : openGUIsByLocationAndPlayer.entrySet()) {
+        for(Map.Entry<BlockLocation, Map<UUID, SkyHopperGUI>> locationMapEntry : openGUIsByLocationAndPlayer.entrySet()) {
             Map<UUID, SkyHopperGUI> uuidGuiMap = locationMapEntry.getValue();
 
             if(uuidGuiMap.isEmpty()) continue;
@@ -188,5 +209,6 @@ public class GUIManager {
         }
 
         openGUIsByLocationAndPlayer.clear();
+        openGUIsByPlayer.clear();
     }
 }
@@ -18,6 +18,7 @@
 package com.github.lukesky19.skyHoppers.manager;
 
 import com.github.lukesky19.skyHoppers.SkyHoppers;
+import com.github.lukesky19.skyHoppers.data.BlockLocation;
 import com.github.lukesky19.skyHoppers.data.config.Locale;
 import com.github.lukesky19.skyHoppers.data.config.Settings;
 import com.github.lukesky19.skyHoppers.database.DatabaseManager;
@@ -33,9 +34,13 @@ import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
+import org.bukkit.block.Block;
 import org.bukkit.block.BlockState;
 import org.bukkit.block.Container;
+import org.bukkit.block.DoubleChest;
 import org.bukkit.block.Hopper;
+import org.bukkit.inventory.DoubleChestInventory;
+import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.ItemType;
 import org.bukkit.inventory.meta.ItemMeta;
@@ -51,14 +56,26 @@ import java.util.stream.Collectors;
  * This class manages {@link SkyHopper}s including storage, creation, and saving.
  */
 public class HopperManager {
+    private static final int VANILLA_HOPPER_COOLDOWN = 8;
+    private static final int VANILLA_HOPPER_LOCK_MARGIN_TICKS = 40;
+
     private final @NotNull SkyHoppers skyHoppers;
     private final @NotNull SettingsManager settingsManager;
     private final @NotNull LocaleManager localeManager;
     private final @NotNull DatabaseManager databaseManager;
     private final @NotNull GUIManager guiManager;
 
-    private final @NotNull List<@NotNull Location> hopperLocations = new ArrayList<>();
-    private final @NotNull Map<@NotNull Location, @NotNull SkyHopper> skyHopperMap = new HashMap<>();
+    private final @NotNull Map<@NotNull UUID, @NotNull Map<@NotNull Long, @NotNull Set<@NotNull BlockLocation>>> hopperLocationsByChunk = new HashMap<>();
+    private final @NotNull Map<@NotNull BlockLocation, @NotNull SkyHopper> skyHopperMap = new HashMap<>();
+    private @Nullable List<@NotNull SkyHopper> skyHoppersSnapshot;
+    private final @NotNull SkyHopperLocationFilter skyHopperLocationFilter = new SkyHopperLocationFilter();
+    private final @NotNull Map<@NotNull UUID, @NotNull Set<@NotNull Long>> verifiedChunks = new HashMap<>();
+    private final @NotNull HopperScheduler transferScheduler = new HopperScheduler();
+    private final @NotNull HopperScheduler suctionScheduler = new HopperScheduler();
+    private final @NotNull LinkedContainerIndex linkedContainerIndex = new LinkedContainerIndex();
+    private final @NotNull ContainerCapacityCache containerCapacityCache = new ContainerCapacityCache();
+    private final @NotNull SuctionRangeIndex suctionRangeIndex = new SuctionRangeIndex();
+    private final @NotNull ItemEntityIndex itemEntityIndex = new ItemEntityIndex(suctionRangeIndex);
 
     /**
      * Constructor
@@ -87,40 +104,129 @@ public class HopperManager {
      * @return The {@link SkyHopper} or null if there is no {@link SkyHopper} at that {@link Location}.
      */
     public @Nullable SkyHopper getSkyHopper(@NotNull Location location) {
+        if(location.getWorld() == null) return null;
+
+        return skyHopperMap.get(BlockLocation.of(location));
+    }
+
+    /**
+     * Get the {@link SkyHopper} at a given {@link BlockLocation}.
+     * @param location The {@link BlockLocation} of the {@link SkyHopper}.
+     * @return The {@link SkyHopper} or null if there is no {@link SkyHopper} at that {@link BlockLocation}.
+     */
+    public @Nullable SkyHopper getSkyHopper(@NotNull BlockLocation location) {
         return skyHopperMap.get(location);
     }
 
+    /**
+     * Checks if a {@link SkyHopper} is loaded at the block of the given {@link Location} without creating a {@link BlockLocation}.
+     * @param location The {@link Location} to check.
+     * @return true if a {@link SkyHopper} is loaded at the {@link Location}, otherwise false.
+     */
+    public boolean isSkyHopperLocation(@NotNull Location location) {
+        World world = location.getWorld();
+        if(world == null) return false;
+
+        return skyHopperLocationFilter.contains(world.getUID(), location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+
     /**
      * Get a {@link List} of {@link SkyHopper}s that are loaded.
-     * @return A {@link List} of {@link SkyHopper}s that are loaded.
+     * The same unmodifiable {@link List} is returned until a {@link SkyHopper} is loaded or unloaded, so it is safe to iterate while SkyHoppers change.
+     * @return An unmodifiable {@link List} of {@link SkyHopper}s that are loaded.
      */
     public @NotNull List<SkyHopper> getSkyHoppers() {
-        return new ArrayList<>(skyHopperMap.values());
+        if(skyHoppersSnapshot == null) {
+            skyHoppersSnapshot = List.copyOf(skyHopperMap.values());
+        }
+
+        return skyHoppersSnapshot;
+    }
+
+    /**
+     * Get the {@link HopperScheduler} that orders the loaded {@link SkyHopper}s by their next transfer time.
+     * @return The transfer {@link HopperScheduler}.
+     */
+    public @NotNull HopperScheduler getTransferScheduler() {
+        return transferScheduler;
+    }
+
+    /**
+     * Get the {@link HopperScheduler} that orders the loaded {@link SkyHopper}s by their next suction time.
+     * @return The suction {@link HopperScheduler}.
+     */
+    public @NotNull HopperScheduler getSuctionScheduler() {
+        return suctionScheduler;
+    }
+
+    /**
+     * Get the {@link ItemEntityIndex} that groups the loaded item entities by chunk section.
+     * @return The {@link ItemEntityIndex}.
+     */
+    public @NotNull ItemEntityIndex getItemEntityIndex() {
+        return itemEntityIndex;
+    }
+
+    /**
+     * Get the {@link SuctionRangeIndex} that maps chunk sections to the {@link SkyHopper}s whose suction range overlaps them.
+     * @return The {@link SuctionRangeIndex}.
+     */
+    public @NotNull SuctionRangeIndex getSuctionRangeIndex() {
+        return suctionRangeIndex;
+    }
+
+    /**
+     * Get the {@link ContainerCapacityCache} that remembers which linked containers are full.
+     * @return The {@link ContainerCapacityCache}.
+     */
+    public @NotNull ContainerCapacityCache getContainerCapacityCache() {
+        return containerCapacityCache;
+    }
+
+    /**
+     * Get the loaded {@link SkyHopper}s that are linked to the container at the given {@link Location}.
+     * @param location The {@link Location} of the container.
+     * @return An unmodifiable {@link Set} of {@link SkyHopper}s. Empty if no loaded {@link SkyHopper}s are linked to the container.
+     */
+    public @NotNull Set<@NotNull SkyHopper> getSkyHoppersLinkedTo(@NotNull Location location) {
+        if(location.getWorld() == null) return Set.of();
+
+        return linkedContainerIndex.getSkyHoppers(BlockLocation.of(location));
+    }
+
+    /**
+     * Get the loaded {@link SkyHopper}s that are linked to the container at the given {@link BlockLocation}.
+     * @param location The {@link BlockLocation} of the container.
+     * @return An unmodifiable {@link Set} of {@link SkyHopper}s. Empty if no loaded {@link SkyHopper}s are linked to the container.
+     */
+    public @NotNull Set<@NotNull SkyHopper> getSkyHoppersLinkedTo(@NotNull BlockLocation location) {
+        return linkedContainerIndex.getSkyHoppers(location);
     }
 
     /**
      * Reloads all SkyHopper locations and caches all SkyHoppers in loaded chunks.
      */
     public void reload() {
-        hopperLocations.clear();
-        skyHopperMap.clear();
+        hopperLocationsByChunk.clear();
+        clearSkyHoppers();
 
         // Migrates the old database to the new
         databaseManager.migrateLegacyDatabase().whenComplete((v, t) -> {
-            // Gets all SkyHopper locations from the database
-            hopperLocations.clear();
-
             // Load SkyHopper Locations
-            databaseManager.getHoppersTable().getSkyHopperLocations().thenAccept(list -> {
-                hopperLocations.addAll(list);
-
-                // Load SkyHoppers in loaded chunks
-                for(World world : skyHoppers.getServer().getWorlds()) {
-                    for(Chunk chunk : world.getLoadedChunks()) {
-                        loadSkyHoppersInChunk(chunk);
-                    }
-                }
-            });
+            databaseManager.getHoppersTable().getSkyHopperLocations().thenAccept(list ->
+                    // Index the locations on the main thread as chunks and blocks can't be accessed async
+                    skyHoppers.getServer().getScheduler().runTask(skyHoppers, () -> {
+                        // Gets all SkyHopper locations from the database
+                        hopperLocationsByChunk.clear();
+                        list.forEach(location -> indexLocation(BlockLocation.of(location)));
+
+                        // Load SkyHoppers in loaded chunks
+                        for(World world : skyHoppers.getServer().getWorlds()) {
+                            for(Chunk chunk : world.getLoadedChunks()) {
+                                loadSkyHoppersInChunk(chunk);
+                            }
+                        }
+                    }));
         });
     }
 
@@ -129,41 +235,78 @@ public class HopperManager {
      * @param chunk The chunk to check for SkyHoppers to load.
      */
     public void loadSkyHoppersInChunk(@NotNull Chunk chunk) {
-        int chunkX = chunk.getX();
-        int chunkZ = chunk.getZ();
-        for(Location location : hopperLocations) {
-            // Change location X and Z to chunk locations.
-            int locX = location.getBlockX() >> 4;
-            int locZ = location.getBlockZ() >> 4;
-
-            // Check if SkyHopper Chunk Location matches Chunk location.
-            if(locX == chunkX && locZ == chunkZ) {
-                // Check if the SkyHopper is already loaded
-                if(skyHopperMap.containsKey(location)) return;
-
-                // Check if the block at the location is a hopper
-                if(location.getBlock().getState(false) instanceof Hopper hopper) {
-                    // Get the PersistentDataContainer
-                    PersistentDataContainer pdc = hopper.getPersistentDataContainer();
-
-                    // Get the SkyHopper from the given Hopper
-                    SkyHopper skyHopper = getSkyHopperFromPDC(location, pdc);
-
-                    // Check if the SkyHopper is valid
-                    if(skyHopper != null) {
-                        // Save any updated SkyHopper data to the Hopper PDC
-                        this.saveSkyHopperToBlockPDC(skyHopper, hopper);
-
-                        cacheSkyHopper(location, skyHopper);
-                    }
+        Set<BlockLocation> chunkLocations = getChunkLocations(chunk);
+        if(chunkLocations == null) return;
+
+        // Copy the locations as caching a SkyHopper modifies the index
+        for(BlockLocation blockLocation : List.copyOf(chunkLocations)) {
+            // Check if the SkyHopper is already loaded
+            if(skyHopperMap.containsKey(blockLocation)) continue;
+
+            // Check if the block at the location is a hopper
+            if(chunk.getBlock(blockLocation.x() & 15, blockLocation.y(), blockLocation.z() & 15).getState(false) instanceof Hopper hopper) {
+                Location location = blockLocation.toLocation();
+
+                // Get the PersistentDataContainer
+                PersistentDataContainer pdc = hopper.getPersistentDataContainer();
+
+                // Get the SkyHopper from the given Hopper
+                SkyHopper skyHopper = getSkyHopperFromPDC(location, pdc);
+
+                // Check if the SkyHopper is valid
+                if(skyHopper != null) {
+                    // Save any updated SkyHopper data to the Hopper PDC
+                    this.saveSkyHopperToBlockPDC(skyHopper, hopper);
+
+                    cacheSkyHopper(location, skyHopper);
                 }
             }
         }
     }
 
+    /**
+     * Unloads all SkyHoppers in a chunk.
+     * Each loaded {@link SkyHopper} is saved to its Hopper's PDC and removed from the cache and the {@link HopperScheduler}s.
+     * The {@link Location} stays in the chunk index so the {@link SkyHopper} is loaded again when the chunk loads.
+     * @param chunk The chunk to unload SkyHoppers from.
+     */
+    public void unloadSkyHoppersInChunk(@NotNull Chunk chunk) {
+        // Linked containers in this chunk are resolved again once it loads
+        for(BlockLocation containerLocation : linkedContainerIndex.getContainerLocations(chunk.getWorld().getUID(), chunk.getChunkKey())) {
+            invalidateLinkedContainer(containerLocation);
+        }
+
+        // The chunk's blocks may change while it is unloaded, so it must be checked again for unindexed SkyHoppers.
+        Set<Long> worldVerifiedChunks = verifiedChunks.get(chunk.getWorld().getUID());
+        if(worldVerifiedChunks != null) worldVerifiedChunks.remove(chunk.getChunkKey());
+
+        Set<BlockLocation> chunkLocations = getChunkLocations(chunk);
+        if(chunkLocations == null) return;
+
+        for(BlockLocation blockLocation : chunkLocations) {
+            SkyHopper skyHopper = skyHopperMap.remove(blockLocation);
+            if(skyHopper == null) continue;
+
+            skyHoppersSnapshot = null;
+            skyHopperLocationFilter.remove(blockLocation);
+
+            detachSkyHopper(skyHopper);
+
+            // Save the latest SkyHopper data before the chunk is saved
+            if(chunk.getBlock(blockLocation.x() & 15, blockLocation.y(), blockLocation.z() & 15).getState(false) instanceof Hopper hopper) {
+                unlockVanillaHopper(hopper);
+
+                saveSkyHopperToBlockPDC(skyHopper, hopper);
+            }
+
+            guiManager.closeOpenGUIsForLocation(blockLocation);
+        }
+    }
+
     /**
      * Loads a {@link SkyHopper} at a given Location.
      * @apiNote This method has performance costs because it loads the chunk if it isn't already loaded.
+     * If the chunk had to be loaded, the {@link SkyHopper} is unloaded again along with the chunk.
      * @param location The {@link Location} of the {@link SkyHopper}.
      */
     public void loadSkyHopperAtLocation(@NotNull Location location) {
@@ -203,6 +346,34 @@ public class HopperManager {
         }
     }
 
+    /**
+     * Loads the {@link SkyHopper} at a {@link Block} a player interacted with if it isn't already loaded.
+     * Blocks that aren't hoppers are ignored. A hopper that isn't in the chunk index causes the chunk to be checked once for
+     * SkyHoppers missing from the index, after which the chunk is skipped until it unloads.
+     * @param block The {@link Block} to load a {@link SkyHopper} for.
+     */
+    public void loadSkyHopperAtBlock(@NotNull Block block) {
+        if(block.getType() != Material.HOPPER) return;
+
+        BlockLocation blockLocation = BlockLocation.of(block);
+        if(skyHopperMap.containsKey(blockLocation)) return;
+
+        if(isLocationIndexed(blockLocation)) {
+            loadSkyHopperAtLocation(block.getLocation());
+            return;
+        }
+
+        // Check the chunk for SkyHoppers that aren't in the database only once
+        Chunk chunk = block.getChunk();
+        if(!verifiedChunks.computeIfAbsent(chunk.getWorld().getUID(), uuid -> new HashSet<>()).add(chunk.getChunkKey())) return;
+
+        for(BlockState blockState : chunk.getTileEntities(tileBlock -> tileBlock.getType() == Material.HOPPER, false)) {
+            if(blockState instanceof Hopper hopper && hopper.getPersistentDataContainer().has(HopperKeys.ENABLED.getKey())) {
+                loadSkyHopperAtLocation(hopper.getLocation());
+            }
+        }
+    }
+
     /**
      * Loads all SkyHoppers.
      * @param force If true, will load all SkyHoppers, regardless if they are already cached. If false, will only load SkyHoppers not already cached.
@@ -214,16 +385,18 @@ public class HopperManager {
 
         skyHoppers.getServer().getScheduler().runTaskLater(skyHoppers, () -> {
             if(!force) {
-                for (Location location : hopperLocations) {
-                    if (!skyHopperMap.containsKey(location)) {
-                        loadSkyHopperAtLocation(location);
+                for (BlockLocation blockLocation : getIndexedLocations()) {
+                    if (!skyHopperMap.containsKey(blockLocation) && blockLocation.getWorld() != null) {
+                        loadSkyHopperAtLocation(blockLocation.toLocation());
                     }
                 }
             } else {
-                skyHopperMap.clear();
+                clearSkyHoppers();
 
-                for (Location location : hopperLocations) {
-                    loadSkyHopperAtLocation(location);
+                for (BlockLocation blockLocation : getIndexedLocations()) {
+                    if(blockLocation.getWorld() != null) {
+                        loadSkyHopperAtLocation(blockLocation.toLocation());
+                    }
                 }
             }
 
@@ -239,7 +412,29 @@ public class HopperManager {
     public void cacheSkyHopper(@NotNull Location location, @NotNull SkyHopper skyHopper) {
         databaseManager.getHoppersTable().addSkyHopperLocation(location);
 
-        skyHopperMap.put(location, skyHopper);
+        BlockLocation blockLocation = BlockLocation.of(location);
+        indexLocation(blockLocation);
+
+        SkyHopper previousSkyHopper = skyHopperMap.put(blockLocation, skyHopper);
+        if(previousSkyHopper != skyHopper) skyHoppersSnapshot = null;
+        if(previousSkyHopper == null) skyHopperLocationFilter.add(blockLocation);
+        if(previousSkyHopper != null && previousSkyHopper != skyHopper) {
+            detachSkyHopper(previousSkyHopper);
+        }
+
+        skyHopper.setTransferScheduler(transferScheduler);
+        skyHopper.setSuctionScheduler(suctionScheduler);
+        skyHopper.setLinkedContainerIndex(linkedContainerIndex);
+        skyHopper.setSuctionRangeIndex(suctionRangeIndex);
+
+        if(location.getBlock().getState(false) instanceof Hopper hopper) {
+            if(isVanillaHopperLockEnabled()) {
+                lockVanillaHopper(hopper, skyHopper);
+            } else {
+                // Clear any lock left behind by a crash or by the setting being turned off
+                unlockVanillaHopper(hopper);
+            }
+        }
     }
 
     /**
@@ -249,11 +444,217 @@ public class HopperManager {
     public void removeSkyHopper(@NotNull Location location) {
         databaseManager.getHoppersTable().removeSkyHopperLocation(location);
 
-        skyHopperMap.remove(location);
+        BlockLocation blockLocation = BlockLocation.of(location);
+        unindexLocation(blockLocation);
+
+        SkyHopper skyHopper = skyHopperMap.remove(blockLocation);
+        if(skyHopper != null) {
+            skyHoppersSnapshot = null;
+            skyHopperLocationFilter.remove(blockLocation);
+            detachSkyHopper(skyHopper);
+            unlockVanillaHopper(blockLocation);
+        }
 
         guiManager.closeOpenGUIsForLocation(location);
     }
 
+    /**
+     * Removes all {@link SkyHopper}s from the cache, the {@link HopperScheduler}s, and the {@link LinkedContainerIndex}.
+     */
+    private void clearSkyHoppers() {
+        unlockVanillaHoppers();
+
+        skyHopperMap.values().forEach(this::detachSkyHopper);
+        skyHopperMap.clear();
+        skyHoppersSnapshot = null;
+        skyHopperLocationFilter.clear();
+
+        transferScheduler.clear();
+        suctionScheduler.clear();
+        linkedContainerIndex.clear();
+        suctionRangeIndex.clear();
+        containerCapacityCache.clear();
+        verifiedChunks.clear();
+    }
+
+    /**
+     * Adds a SkyHopper {@link BlockLocation} to the chunk index.
+     * @param location The {@link BlockLocation} of the SkyHopper.
+     */
+    private void indexLocation(@NotNull BlockLocation location) {
+        hopperLocationsByChunk.computeIfAbsent(location.worldId(), uuid -> new HashMap<>())
+                .computeIfAbsent(location.getChunkKey(), key -> new HashSet<>())
+                .add(location);
+    }
+
+    /**
+     * Removes a SkyHopper {@link BlockLocation} from the chunk index.
+     * @param location The {@link BlockLocation} of the SkyHopper.
+     */
+    private void unindexLocation(@NotNull BlockLocation location) {
+        Map<Long, Set<BlockLocation>> worldLocations = hopperLocationsByChunk.get(location.worldId());
+        if(worldLocations == null) return;
+
+        long chunkKey = location.getChunkKey();
+        Set<BlockLocation> chunkLocations = worldLocations.get(chunkKey);
+        if(chunkLocations == null) return;
+
+        chunkLocations.remove(location);
+
+        if(chunkLocations.isEmpty()) {
+            worldLocations.remove(chunkKey);
+            if(worldLocations.isEmpty()) hopperLocationsByChunk.remove(location.worldId());
+        }
+    }
+
+    /**
+     * Checks if a {@link BlockLocation} is in the chunk index.
+     * @param location The {@link BlockLocation} to check.
+     * @return true if the {@link BlockLocation} is a known SkyHopper location, otherwise false.
+     */
+    private boolean isLocationIndexed(@NotNull BlockLocation location) {
+        Map<Long, Set<BlockLocation>> worldLocations = hopperLocationsByChunk.get(location.worldId());
+        if(worldLocations == null) return false;
+
+        Set<BlockLocation> chunkLocations = worldLocations.get(location.getChunkKey());
+        return chunkLocations != null && chunkLocations.contains(location);
+    }
+
+    /**
+     * Get the indexed SkyHopper {@link BlockLocation}s in a chunk.
+     * @param chunk The {@link Chunk}.
+     * @return A {@link Set} of SkyHopper {@link BlockLocation}s or null if the chunk has no SkyHoppers.
+     */
+    private @Nullable Set<BlockLocation> getChunkLocations(@NotNull Chunk chunk) {
+        Map<Long, Set<BlockLocation>> worldLocations = hopperLocationsByChunk.get(chunk.getWorld().getUID());
+        if(worldLocations == null) return null;
+
+        return worldLocations.get(chunk.getChunkKey());
+    }
+
+    /**
+     * Get a {@link List} of every SkyHopper {@link BlockLocation} in the chunk index.
+     * @return A {@link List} of SkyHopper {@link BlockLocation}s.
+     */
+    private @NotNull List<@NotNull BlockLocation> getIndexedLocations() {
+        List<BlockLocation> locations = new ArrayList<>();
+        hopperLocationsByChunk.values().forEach(worldLocations -> worldLocations.values().forEach(locations::addAll));
+        return locations;
+    }
+
+    /**
+     * Removes a {@link SkyHopper} from the transfer and suction {@link HopperScheduler}s and the {@link LinkedContainerIndex}.
+     * @param skyHopper The {@link SkyHopper} to detach.
+     */
+    private void detachSkyHopper(@NotNull SkyHopper skyHopper) {
+        skyHopper.setTransferScheduler(null);
+        skyHopper.setSuctionScheduler(null);
+        skyHopper.setLinkedContainerIndex(null);
+        skyHopper.setSuctionRangeIndex(null);
+
+        // Container changes are no longer tracked for this SkyHopper
+        skyHopper.getLinkedContainers().forEach(SkyContainer::invalidateContainer);
+    }
+
+    /**
+     * Checks if vanilla hopper ticking should be stopped for SkyHoppers.
+     * @return true if SkyHoppers should be locked, otherwise false.
+     */
+    public boolean isVanillaHopperLockEnabled() {
+        Settings settings = settingsManager.getSettings();
+        if(settings == null || settings.performance() == null) return false;
+
+        return settings.performance().lockVanillaHoppers();
+    }
+
+    /**
+     * Checks if suction should only run for {@link SkyHopper}s that items have been dropped near.
+     * @return true if push mode suction is enabled, otherwise false.
+     */
+    public boolean isPushSuctionEnabled() {
+        Settings settings = settingsManager.getSettings();
+        if(settings == null || settings.performance() == null) return false;
+
+        return settings.performance().pushSuction();
+    }
+
+    /**
+     * Get the distance in blocks players must be within to see SkyHopper suction particles.
+     * @return The particle view distance, 32 if not configured.
+     */
+    public int getParticleViewDistance() {
+        Settings settings = settingsManager.getSettings();
+        if(settings == null || settings.performance() == null || settings.performance().particleViewDistance() <= 0) return 32;
+
+        return settings.performance().particleViewDistance();
+    }
+
+    /**
+     * Get the maximum number of SkyHopper suction effects sent each tick.
+     * @return The maximum number of effects, 64 if not configured.
+     */
+    public int getMaxParticleEffectsPerTick() {
+        Settings settings = settingsManager.getSettings();
+        if(settings == null || settings.performance() == null || settings.performance().maxParticleEffectsPerTick() <= 0) return 64;
+
+        return settings.performance().maxParticleEffectsPerTick();
+    }
+
+    /**
+     * Get the maximum number of missed intervals a {@link SkyHopper} can catch up on at once.
+     * @return The maximum number of missed intervals, at least 1.
+     */
+    public int getMaxCatchUpIntervals() {
+        Settings settings = settingsManager.getSettings();
+        if(settings == null || settings.performance() == null) return 1;
+
+        return Math.max(1, settings.performance().maxCatchUpIntervals());
+    }
+
+    /**
+     * Unlocks the vanilla hoppers of all loaded {@link SkyHopper}s so no lock is saved to the world.
+     */
+    public void unlockVanillaHoppers() {
+        skyHopperMap.keySet().forEach(this::unlockVanillaHopper);
+    }
+
+    /**
+     * Stops the vanilla hopper from moving items by putting it on a transfer cooldown that lasts a little longer than the SkyHopper's transfer interval.
+     * The {@link com.github.lukesky19.skyHoppers.task.TransferTask} renews the lock each time the SkyHopper is due, so the lock runs out on its own if the plugin stops without unlocking.
+     * Vanilla hoppers don't shorten a cooldown above {@link #VANILLA_HOPPER_COOLDOWN} when items are pushed into them.
+     * @param hopper The SkyHopper's {@link Hopper}.
+     * @param skyHopper The {@link SkyHopper}.
+     */
+    public void lockVanillaHopper(@NotNull Hopper hopper, @NotNull SkyHopper skyHopper) {
+        long intervalTicks = (long) Math.ceil(skyHopper.getTransferSpeed() * 20);
+        int cooldown = (int) Math.min(Integer.MAX_VALUE, Math.max(0L, intervalTicks) + VANILLA_HOPPER_LOCK_MARGIN_TICKS);
+
+        hopper.setTransferCooldown(cooldown);
+    }
+
+    /**
+     * Removes the lock from a SkyHopper's vanilla hopper if it has one.
+     * @param hopper The SkyHopper's {@link Hopper}.
+     */
+    private void unlockVanillaHopper(@NotNull Hopper hopper) {
+        if(hopper.getTransferCooldown() > VANILLA_HOPPER_COOLDOWN) {
+            hopper.setTransferCooldown(0);
+        }
+    }
+
+    /**
+     * Removes the lock from the vanilla hopper at a {@link BlockLocation} if the chunk is loaded.
+     * @param location The {@link BlockLocation} of the SkyHopper.
+     */
+    private void unlockVanillaHopper(@NotNull BlockLocation location) {
+        if(!location.isChunkLoaded()) return;
+
+        Block block = location.getBlock();
+        if(block != null && block.getState(false) instanceof Hopper hopper) {
+            unlockVanillaHopper(hopper);
+        }
+    }
+
     /**
      * Checks if an {@link ItemStack} is a {@link SkyHopper}.
      * @param itemStack The {@link ItemStack} to check.
@@ -630,26 +1031,72 @@ public class HopperManager {
         hopper.update();
     }
 
+    /**
+     * Clears the cached {@link Container} of every {@link SkyContainer} linked at the given {@link BlockLocation}.
+     * Called when the block at that {@link BlockLocation} changes.
+     * @param location The {@link BlockLocation} of the block that changed.
+     */
+    public void invalidateLinkedContainer(@NotNull BlockLocation location) {
+        containerCapacityCache.invalidate(location);
+
+        for(SkyHopper skyHopper : linkedContainerIndex.getSkyHoppers(location)) {
+            SkyContainer skyContainer = skyHopper.getLinkedContainer(location);
+            if(skyContainer != null) skyContainer.invalidateContainer();
+        }
+    }
+
+    /**
+     * Checks if an {@link Inventory} belongs to a linked container, using only its location and not its holder.
+     * @param inventory The {@link Inventory} to check.
+     * @return true if the {@link Inventory}, or either side of a double chest, is a linked container, otherwise false.
+     */
+    public boolean isLinkedContainer(@NotNull Inventory inventory) {
+        if(inventory instanceof DoubleChestInventory doubleChestInventory) {
+            return isLinkedContainer(doubleChestInventory.getLeftSide()) || isLinkedContainer(doubleChestInventory.getRightSide());
+        }
+
+        Location location = inventory.getLocation();
+        if(location == null || location.getWorld() == null) return false;
+
+        return linkedContainerIndex.contains(BlockLocation.of(location));
+    }
+
+    /**
+     * Forgets whether the container(s) an {@link Inventory} belongs to are full, after items may have been removed from it.
+     * @param inventory The {@link Inventory} that changed.
+     */
+    public void handleInventoryChanged(@NotNull Inventory inventory) {
+        if(containerCapacityCache.isEmpty()) return;
+
+        if(inventory.getHolder(false) instanceof DoubleChest doubleChest) {
+            if(doubleChest.getLeftSide(false) instanceof BlockState leftSide) containerCapacityCache.invalidate(BlockLocation.of(leftSide));
+            if(doubleChest.getRightSide(false) instanceof BlockState rightSide) containerCapacityCache.invalidate(BlockLocation.of(rightSide));
+            return;
+        }
+
+        Location location = inventory.getLocation();
+        if(location == null || location.getWorld() == null) return;
+
+        containerCapacityCache.invalidate(BlockLocation.of(location));
+    }
+
     /**
      * Check if the container broken is linked to any SkyHoppers and refresh any open GUIs for that SkyHopper.
      */
     public void handleContainerBroken(@NotNull Container container) {
-        Location containerLocation = container.getLocation();
-
-        // Loop through all loaded SkyHoppers
-        skyHopperMap.forEach((location, skyHopper) -> {
-            // Loop through the SkyHopper's Linked Containers
-            skyHopper.getLinkedContainers().forEach(skyContainer -> {
-                // Check if the broken container matches a linked container's location
-                if(skyContainer.getLocation().equals(containerLocation)) {
-                    // Close any output filter GUIs for the SkyContainer provided
-                    guiManager.closeOutputFilterGUIs(location);
-
-                    // Refresh any other open GUIs for the SkyHopper.
-                    guiManager.refreshViewersGUI(location);
-                }
-            });
-        });
+        invalidateLinkedContainer(BlockLocation.of(container));
+
+        // Loop through the SkyHoppers linked to the broken container
+        for(SkyHopper skyHopper : linkedContainerIndex.getSkyHoppers(BlockLocation.of(container))) {
+            BlockLocation location = skyHopper.getBlockLocation();
+            if(location == null) continue;
+
+            // Close any output filter GUIs for the SkyContainer provided
+            guiManager.closeOutputFilterGUIs(location);
+
+            // Refresh any other open GUIs for the SkyHopper.
+            guiManager.refreshViewersGUI(location);
+        }
     }
 
 }
\ No newline at end of file
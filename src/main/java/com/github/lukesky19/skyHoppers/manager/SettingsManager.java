@@ -146,8 +146,8 @@ public class SettingsManager {
             return;
         }
 
-        if(!settings.configVersion().equals("1.1.0.0")) {
-            logger.warn(AdventureUtil.serialize("Your plugin settings are outdated. Current version: " + settings.configVersion() + ". Latest version: 1.1.0.0."));
+        if(!settings.configVersion().equals("1.2.0.0")) {
+            logger.warn(AdventureUtil.serialize("Your plugin settings are outdated. Current version: " + settings.configVersion() + ". Latest version: 1.2.0.0."));
             logger.warn(AdventureUtil.serialize("You should regenerate your settings.yml or migrate your settings.yml to the new version."));
         }
     }
@@ -18,6 +18,7 @@
 package com.github.lukesky19.skyHoppers.manager;
 
 import com.github.lukesky19.skyHoppers.SkyHoppers;
+import com.github.lukesky19.skyHoppers.task.ParticleTask;
 import com.github.lukesky19.skyHoppers.task.TransferTask;
 import com.github.lukesky19.skyHoppers.task.SuctionTask;
 import org.bukkit.scheduler.BukkitTask;
@@ -25,13 +26,15 @@ import org.bukkit.scheduler.BukkitTask;
 public class TaskManager {
     private final SkyHoppers skyHoppers;
     private final HopperManager hopperManager;
+    private final ParticleTask particleTask;
 
     private BukkitTask transferTask;
     private BukkitTask suctionTask;
 
-    public TaskManager(SkyHoppers skyHoppers, HopperManager hopperManager) {
+    public TaskManager(SkyHoppers skyHoppers, HopperManager hopperManager, ParticleTask particleTask) {
         this.skyHoppers = skyHoppers;
         this.hopperManager = hopperManager;
+        this.particleTask = particleTask;
     }
 
     public void startTransferTask() {
@@ -46,7 +49,7 @@ public class TaskManager {
     }
 
     public void startSuctionTask() {
-        suctionTask = new SuctionTask(skyHoppers, hopperManager).runTaskTimer(skyHoppers, 0L, 1L);
+        suctionTask = new SuctionTask(skyHoppers, hopperManager, particleTask).runTaskTimer(skyHoppers, 0L, 1L);
     }
 
     public void stopSuctionTask() {
@@ -18,10 +18,11 @@
 package com.github.lukesky19.skyHoppers.task;
 
 import com.github.lukesky19.skyHoppers.SkyHoppers;
+import com.github.lukesky19.skyHoppers.data.BlockLocation;
 import com.github.lukesky19.skyHoppers.data.DelayedEntry;
 import com.github.lukesky19.skyHoppers.hopper.SkyHopper;
 import com.github.lukesky19.skyHoppers.manager.HopperManager;
-import org.bukkit.Location;
+import org.bukkit.block.Block;
 import org.bukkit.block.Container;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.jetbrains.annotations.NotNull;
@@ -37,7 +38,7 @@ import static com.github.lukesky19.skyHoppers.util.InventoryUtils.transferInvent
 public class DelayedTask extends BukkitRunnable {
     private final @NotNull SkyHoppers plugin;
     private final @NotNull HopperManager hopperManager;
-    private final @NotNull Map<Location, DelayedEntry> delayedEntriesMap = new HashMap<>();
+    private final @NotNull Map<BlockLocation, DelayedEntry> delayedEntriesMap = new HashMap<>();
 
     /**
      * Constructor
@@ -54,7 +55,7 @@ public class DelayedTask extends BukkitRunnable {
      * @param skyHopperLocation The location of the SkyHopper.
      * @param delayedEntry A DelayedEntry record containing the data required to complete the transfer.
      */
-    public void add(Location skyHopperLocation, DelayedEntry delayedEntry) {
+    public void add(@NotNull BlockLocation skyHopperLocation, @NotNull DelayedEntry delayedEntry) {
         delayedEntriesMap.put(skyHopperLocation, delayedEntry);
     }
 
@@ -71,8 +72,8 @@ public class DelayedTask extends BukkitRunnable {
             }
 
             DelayedEntry delayedEntry = iterator.next();
-            Location sourceLocation = delayedEntry.sourceLocation();
-            Location destinationLocation = delayedEntry.destinationLocation();
+            BlockLocation sourceLocation = delayedEntry.sourceLocation();
+            BlockLocation destinationLocation = delayedEntry.destinationLocation();
 
             SkyHopper sourceSkyHopper = hopperManager.getSkyHopper(sourceLocation);
             SkyHopper destinationSkyHopper = hopperManager.getSkyHopper(destinationLocation);
@@ -82,8 +83,11 @@ public class DelayedTask extends BukkitRunnable {
                 continue;
             }
 
-            if(sourceLocation.getBlock().getState(false) instanceof Container source
-                    && delayedEntry.destinationLocation().getBlock().getState(false) instanceof Container destination) {
+            Block sourceBlock = sourceLocation.getBlock();
+            Block destinationBlock = destinationLocation.getBlock();
+
+            if(sourceBlock != null && sourceBlock.getState(false) instanceof Container source
+                    && destinationBlock != null && destinationBlock.getState(false) instanceof Container destination) {
                 if (sourceSkyHopper != null && destinationSkyHopper != null) {
                     if(!sourceSkyHopper.isSkyHopperEnabled()
                             || !destinationSkyHopper.isSkyHopperEnabled()
@@ -162,6 +166,9 @@ public class DelayedTask extends BukkitRunnable {
                     }
                 }
 
+                // Items may have been taken out of the source, which can be a linked container
+                hopperManager.handleInventoryChanged(source.getInventory());
+
                 iterator.remove();
             } else {
                 iterator.remove();
@@ -0,0 +1,147 @@
+/*
+    SkyHoppers adds upgradable hoppers that can suction items, transfer items wirelessly to linked containers.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyHoppers.task;
+
+import com.destroystokyo.paper.ParticleBuilder;
+import com.github.lukesky19.skyHoppers.data.BlockLocation;
+import com.github.lukesky19.skyHoppers.manager.HopperManager;
+import org.bukkit.Color;
+import org.bukkit.Location;
+import org.bukkit.Particle;
+import org.bukkit.World;
+import org.bukkit.block.Hopper;
+import org.bukkit.entity.Item;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * This Task sends the particles for SkyHopper suction.
+ * Effects are combined so each SkyHopper shows at most one effect per tick, are only sent to nearby players that have the SkyHopper's chunk loaded,
+ * and no more than the configured number of effects are sent each tick.
+ */
+public class ParticleTask extends BukkitRunnable {
+    private static final @NotNull Particle.DustOptions SUCTION_DUST = new Particle.DustOptions(Color.YELLOW, 1);
+    private static final double SUCTION_DUST_OFFSET = 0.5;
+
+    private final @NotNull HopperManager hopperManager;
+    private final @NotNull Map<@NotNull BlockLocation, @NotNull SuctionEffect> suctionEffects = new LinkedHashMap<>();
+    private final @NotNull Map<@NotNull UUID, @NotNull List<@NotNull Player>> playersByWorld = new HashMap<>();
+    private final @NotNull List<@NotNull Player> viewers = new ArrayList<>();
+    private final @NotNull Location scratchLocation = new Location(null, 0, 0, 0);
+
+    /**
+     * Constructor
+     * @param hopperManager A {@link HopperManager} instance.
+     */
+    public ParticleTask(@NotNull HopperManager hopperManager) {
+        this.hopperManager = hopperManager;
+    }
+
+    /**
+     * Queues the effect for a SkyHopper collecting or destroying an item with suction.
+     * The dust is spread around the hopper, and the item is only highlighted where it was if it was destroyed, otherwise the hopper is.
+     * Only the latest effect is shown if the SkyHopper collects several items in the same tick.
+     * Copies of the {@link Location}s are kept, as the item may move or be removed before the effect is shown.
+     * @param hopper The SkyHopper's Hopper.
+     * @param item The item that was collected or destroyed.
+     * @param destroyed Was the item destroyed instead of collected?
+     */
+    public void queueSuctionEffect(@NotNull Hopper hopper, @NotNull Item item, boolean destroyed) {
+        Location hopperLocation = hopper.getLocation();
+        Location highlightLocation = destroyed ? item.getLocation() : hopperLocation;
+        suctionEffects.put(BlockLocation.of(hopper), new SuctionEffect(hopperLocation, SUCTION_DUST_OFFSET, highlightLocation));
+    }
+
+    /**
+     * Queues the effect for a SkyHopper picking up or destroying an item that landed on it.
+     * The dust is shown at the hopper's corner without spread, and the item is highlighted where it was.
+     * Only the latest effect is shown if the SkyHopper picks up several items in the same tick.
+     * @param hopper The SkyHopper's Hopper.
+     * @param item The item that was picked up or destroyed.
+     */
+    public void queuePickupEffect(@NotNull Hopper hopper, @NotNull Item item) {
+        suctionEffects.put(BlockLocation.of(hopper), new SuctionEffect(hopper.getLocation(), 0.0, item.getLocation()));
+    }
+
+    /**
+     * The function ran every time this task is ran.
+     */
+    @Override
+    public void run() {
+        if(suctionEffects.isEmpty()) return;
+
+        int budget = hopperManager.getMaxParticleEffectsPerTick();
+        double viewDistance = hopperManager.getParticleViewDistance();
+        double viewDistanceSquared = viewDistance * viewDistance;
+
+        for(Map.Entry<BlockLocation, SuctionEffect> entry : suctionEffects.entrySet()) {
+            if(budget <= 0) break;
+
+            SuctionEffect suctionEffect = entry.getValue();
+            World world = suctionEffect.hopperLocation().getWorld();
+            if(world == null) continue;
+
+            collectViewers(world, suctionEffect.hopperLocation(), entry.getKey().getChunkKey(), viewDistanceSquared);
+            if(viewers.isEmpty()) continue;
+
+            // Highlight hopper that sucked up the item
+            double dustOffset = suctionEffect.dustOffset();
+            new ParticleBuilder(Particle.DUST).location(suctionEffect.hopperLocation()).count(5).offset(dustOffset, dustOffset, dustOffset).extra(0.0).data(SUCTION_DUST).receivers(viewers).spawn();
+
+            // Highlight the item that was sucked up
+            new ParticleBuilder(Particle.WITCH).location(suctionEffect.highlightLocation()).count(3).offset(0.0, 0.0, 0.0).extra(0.0).receivers(viewers).spawn();
+
+            budget--;
+        }
+
+        suctionEffects.clear();
+        playersByWorld.clear();
+        viewers.clear();
+    }
+
+    /**
+     * Fills the viewers {@link List} with the players in a world who are close enough to a {@link Location} and have its chunk loaded.
+     * @param world The {@link World} of the {@link Location}.
+     * @param location The {@link Location} of the effect.
+     * @param chunkKey The chunk key of the {@link Location}.
+     * @param viewDistanceSquared The squared distance players must be within.
+     */
+    private void collectViewers(@NotNull World world, @NotNull Location location, long chunkKey, double viewDistanceSquared) {
+        viewers.clear();
+
+        List<Player> players = playersByWorld.computeIfAbsent(world.getUID(), worldId -> world.getPlayers());
+        for(Player player : players) {
+            player.getLocation(scratchLocation);
+            if(scratchLocation.distanceSquared(location) > viewDistanceSquared) continue;
+            if(!player.isChunkSent(chunkKey)) continue;
+
+            viewers.add(player);
+        }
+    }
+
+    /**
+     * The particles to show for a SkyHopper that collected or destroyed an item.
+     * @param hopperLocation The {@link Location} of the SkyHopper.
+     * @param dustOffset How far the dust around the SkyHopper is spread on each axis.
+     * @param highlightLocation The {@link Location} highlighted for the item.
+     */
+    private record SuctionEffect(@NotNull Location hopperLocation, double dustOffset, @NotNull Location highlightLocation) {}
+}
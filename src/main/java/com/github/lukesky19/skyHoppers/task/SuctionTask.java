@@ -18,21 +18,36 @@
 package com.github.lukesky19.skyHoppers.task;
 
 import com.github.lukesky19.skyHoppers.SkyHoppers;
+import com.github.lukesky19.skyHoppers.data.BlockLocation;
+import com.github.lukesky19.skyHoppers.hopper.CompiledFilter;
+import com.github.lukesky19.skyHoppers.hopper.HopperCapacity;
+import com.github.lukesky19.skyHoppers.hopper.HopperScheduler;
+import com.github.lukesky19.skyHoppers.hopper.ItemEntityIndex;
 import com.github.lukesky19.skyHoppers.hopper.SkyHopper;
+import com.github.lukesky19.skyHoppers.hopper.SuctionRangeIndex;
 import com.github.lukesky19.skyHoppers.manager.HopperManager;
 import com.github.lukesky19.skylib.api.adventure.AdventureUtil;
 import net.kyori.adventure.text.logger.slf4j.ComponentLogger;
 import org.bukkit.*;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.block.Container;
 import org.bukkit.block.Hopper;
 import org.bukkit.entity.Item;
+import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.ItemType;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static com.github.lukesky19.skyHoppers.util.InventoryUtils.addGroundItemToInventory;
+import static com.github.lukesky19.skyHoppers.util.InventoryUtils.transferContainerToSkyHopper;
 import static com.github.lukesky19.skyHoppers.util.RoseStackerUtils.*;
 
 /**
@@ -42,51 +57,276 @@ public class SuctionTask extends BukkitRunnable {
     private final @NotNull SkyHoppers plugin;
     private final @NotNull ComponentLogger logger;
     private final @NotNull HopperManager hopperManager;
+    private final @NotNull ParticleTask particleTask;
+    private final @NotNull List<@NotNull DueSkyHopper> dueSkyHoppers = new ArrayList<>();
+    private final @NotNull List<@NotNull Item> groundItems = new ArrayList<>();
+    private final @NotNull List<@NotNull SuctionJob> suctionJobs = new ArrayList<>();
+    private final @NotNull List<@NotNull Claim> claims = new ArrayList<>();
+    private final @NotNull Set<@NotNull Item> claimedItems = new HashSet<>();
+    private final @NotNull Location scratchLocation = new Location(null, 0, 0, 0);
 
     /**
      * Constructor
      * @param plugin The SkyHoppers Plugin.
      * @param hopperManager A HopperManager instance.
+     * @param particleTask A {@link ParticleTask} instance.
      */
-    public SuctionTask(@NotNull SkyHoppers plugin, @NotNull HopperManager hopperManager) {
+    public SuctionTask(@NotNull SkyHoppers plugin, @NotNull HopperManager hopperManager, @NotNull ParticleTask particleTask) {
         this.plugin = plugin;
         this.logger = plugin.getComponentLogger();
         this.hopperManager = hopperManager;
+        this.particleTask = particleTask;
     }
 
     /**
      * The function ran every time this task is ran.
+     * Only the {@link SkyHopper}s whose suction interval has expired are visited.
+     * A {@link SkyHopper} that missed suction intervals because the server lagged collects the amount for each missed interval at once, up to the configured limit.
+     * In push mode, {@link SkyHopper}s that no items have come near since their last search skip the search.
+     * Each item is claimed by the nearest due {@link SkyHopper} that still has room for it after the items it already claimed, so an item is only collected by one {@link SkyHopper} per run.
+     * {@link SkyHopper}s that can't accept or destroy any item skip the search for items.
      */
     @Override
     public void run() {
         if(plugin.areSkyHoppersPaused()) return;
 
-        for(SkyHopper currentSkyHopper : hopperManager.getSkyHoppers()) {
-            if(currentSkyHopper == null
-                    || currentSkyHopper.getLocation() == null
-                    || currentSkyHopper.getNextSuctionTime() > System.currentTimeMillis()
-                    || !currentSkyHopper.isSkyHopperEnabled()
-                    || !currentSkyHopper.getLocation().isChunkLoaded()
-                    || !(currentSkyHopper.getLocation().getBlock().getState(false) instanceof Hopper hopper))
+        HopperScheduler suctionScheduler = hopperManager.getSuctionScheduler();
+        long time = System.currentTimeMillis();
+
+        // Collect the due SkyHoppers first so that SkyHoppers rescheduled below aren't visited twice in the same run
+        SkyHopper dueSkyHopper;
+        while((dueSkyHopper = suctionScheduler.poll(time)) != null) {
+            dueSkyHoppers.add(new DueSkyHopper(dueSkyHopper, suctionScheduler.getPolledDueTime()));
+        }
+        if(dueSkyHoppers.isEmpty()) return;
+
+        try {
+            suctionDueSkyHoppers(suctionScheduler, time);
+        } finally {
+            // A SkyHopper that wasn't rescheduled, e.g. because it has no location or collecting failed, would never be due again
+            for(DueSkyHopper due : dueSkyHoppers) {
+                SkyHopper skyHopper = due.skyHopper();
+                long addMs = (long) (skyHopper.getSuctionSpeed() * 1000);
+                skyHopper.scheduleSuctionCheck(time + Math.max(addMs, 1L));
+            }
+
+            dueSkyHoppers.clear();
+            groundItems.clear();
+            suctionJobs.clear();
+            claims.clear();
+            claimedItems.clear();
+        }
+    }
+
+    /**
+     * Collects items for each due {@link SkyHopper} and schedules its next suction.
+     * @param suctionScheduler The suction {@link HopperScheduler}.
+     * @param time The current time in milliseconds.
+     */
+    private void suctionDueSkyHoppers(@NotNull HopperScheduler suctionScheduler, long time) {
+        // Items may have moved since they were indexed
+        ItemEntityIndex itemEntityIndex = hopperManager.getItemEntityIndex();
+        itemEntityIndex.refreshIfStale(time);
+
+        boolean pushSuction = hopperManager.isPushSuctionEnabled();
+        SuctionRangeIndex suctionRangeIndex = hopperManager.getSuctionRangeIndex();
+
+        // When vanilla hoppers are locked, SkyHoppers also pull from the container above them.
+        boolean pullFromAbove = hopperManager.isVanillaHopperLockEnabled();
+        int maxCatchUpIntervals = hopperManager.getMaxCatchUpIntervals();
+
+        for(DueSkyHopper due : dueSkyHoppers) {
+            SkyHopper currentSkyHopper = due.skyHopper();
+            Location location = currentSkyHopper.getLocation();
+            if(location == null) continue;
+
+            long addMs = (long) (currentSkyHopper.getSuctionSpeed() * 1000);
+
+            if(!currentSkyHopper.isSkyHopperEnabled()
+                    || !location.isWorldLoaded()
+                    || !location.isChunkLoaded()
+                    || !(location.getBlock().getState(false) instanceof Hopper hopper)) {
+                // Nothing can be collected right now, check again after another suction interval.
+                suctionScheduler.schedule(currentSkyHopper, time + Math.max(addMs, 1L));
+                continue;
+            }
+
+            int intervals = HopperScheduler.getElapsedIntervals(due.dueTime(), time, addMs, maxCatchUpIntervals);
+            int suctionAmount = (int) Math.min(Integer.MAX_VALUE, (long) currentSkyHopper.getSuctionAmount() * intervals);
+            long nextSuctionTime = HopperScheduler.getNextDueTime(due.dueTime(), time, addMs, intervals);
+
+            if(pullFromAbove) {
+                int pulled = pullFromContainerAbove(currentSkyHopper, hopper, suctionAmount);
+                if(pulled >= 0) currentSkyHopper.setNextSuctionTime(nextSuctionTime);
+
+                // Ground suction only gets what is left of the suction amount, so a locked SkyHopper doesn't collect more per interval
+                suctionAmount -= Math.max(pulled, 0);
+                if(suctionAmount <= 0) continue;
+            }
+
+            CompiledFilter compiledFilter = currentSkyHopper.getCompiledFilter();
+            HopperCapacity hopperCapacity = HopperCapacity.of(hopper.getInventory());
+            if(!compiledFilter.destroysAny() && (!compiledFilter.acceptsAny() || hopperCapacity.isFull())) {
+                // No item could be collected, check again after another suction interval.
+                if(currentSkyHopper.getNextSuctionTime() <= time) {
+                    suctionScheduler.schedule(currentSkyHopper, time + Math.max(addMs, 1L));
+                }
                 continue;
+            }
+
+            if(pushSuction && !suctionRangeIndex.isPending(currentSkyHopper)) {
+                // No items have come near, check again after another suction interval.
+                if(currentSkyHopper.getNextSuctionTime() <= time) {
+                    suctionScheduler.schedule(currentSkyHopper, time + Math.max(addMs, 1L));
+                }
+                continue;
+            }
 
             final double suctionRange = currentSkyHopper.getSuctionRange() + 0.5;
-            Location centered = currentSkyHopper.getLocation().clone().add(0.5, 0.5, 0.5);
+            Location centered = location.add(0.5, 0.5, 0.5);
 
-            List<Item> groundItems = centered.getNearbyEntities(suctionRange, suctionRange, suctionRange).stream().filter(entity -> entity instanceof Item).map(entity -> (Item) entity).toList();
-            if(groundItems.isEmpty()) continue;
+            groundItems.clear();
+            boolean sectionsHaveItems = itemEntityIndex.collectItems(hopper.getWorld().getUID(), centered.getX(), centered.getY(), centered.getZ(), suctionRange, groundItems);
 
-            collect(currentSkyHopper, hopper, groundItems, currentSkyHopper.getSuctionAmount());
+            // Items entering these sections will mark this SkyHopper as pending again
+            if(pushSuction && !sectionsHaveItems) suctionRangeIndex.clearPending(currentSkyHopper);
 
-            double suctionSpeed = currentSkyHopper.getSuctionSpeed();
+            if(groundItems.isEmpty()) {
+                // No items nearby, check again after another suction interval.
+                if(currentSkyHopper.getNextSuctionTime() <= time) {
+                    suctionScheduler.schedule(currentSkyHopper, time + Math.max(addMs, 1L));
+                }
+                continue;
+            }
 
-            long addMs = (long) (suctionSpeed * 1000);
-            long time = System.currentTimeMillis() + addMs;
-            
-            currentSkyHopper.setNextSuctionTime(time);
+            SuctionJob suctionJob = new SuctionJob(currentSkyHopper, hopper, hopperCapacity, suctionAmount, addMs, nextSuctionTime, new ArrayList<>());
+            suctionJobs.add(suctionJob);
+            findClaims(suctionJob, centered, groundItems);
+        }
+
+        assignClaims();
+
+        for(SuctionJob suctionJob : suctionJobs) {
+            SkyHopper skyHopper = suctionJob.skyHopper();
+
+            if(suctionJob.claimedItems().isEmpty()) {
+                // Every item nearby was claimed by a closer SkyHopper, check again after another suction interval.
+                if(skyHopper.getNextSuctionTime() <= time) {
+                    suctionScheduler.schedule(skyHopper, time + Math.max(suctionJob.suctionIntervalMs(), 1L));
+                }
+                continue;
+            }
+
+            collect(skyHopper, suctionJob.hopper(), suctionJob.claimedItems(), suctionJob.suctionAmount());
+
+            skyHopper.setNextSuctionTime(suctionJob.nextSuctionTime());
+        }
+    }
+
+    /**
+     * Finds the items near a {@link SkyHopper} that it could collect and records a {@link Claim} for each of them.
+     * @param suctionJob The {@link SuctionJob} of the {@link SkyHopper}.
+     * @param centered The {@link Location} of the center of the {@link SkyHopper}.
+     * @param nearbyItems The items in the {@link SkyHopper}'s suction range.
+     */
+    private void findClaims(@NotNull SuctionJob suctionJob, @NotNull Location centered, @NotNull List<Item> nearbyItems) {
+        CompiledFilter compiledFilter = suctionJob.skyHopper().getCompiledFilter();
+        HopperCapacity hopperCapacity = suctionJob.hopperCapacity();
+
+        for(Item item : nearbyItems) {
+            ItemStack itemStack = item.getItemStack();
+
+            ItemType itemType = itemStack.getType().asItemType();
+            if(itemType == null) continue;
+
+            boolean destroy;
+            switch(compiledFilter.getAction(itemType)) {
+                case ACCEPT -> {
+                    if(!hopperCapacity.canFit(itemStack)) continue;
+                    destroy = false;
+                }
+
+                case DESTROY -> destroy = true;
+
+                default -> {
+                    continue;
+                }
+            }
+
+            item.getLocation(scratchLocation);
+            claims.add(new Claim(item, itemStack, suctionJob, scratchLocation.distanceSquared(centered), destroy));
         }
     }
 
+    /**
+     * Hands each claimed item to the nearest {@link SkyHopper} that claimed it and still has room for it.
+     * Space is reserved in the {@link SkyHopper}'s {@link HopperCapacity} as each item is handed out,
+     * so an item that no longer fits in the nearest {@link SkyHopper} goes to the next nearest one instead.
+     */
+    private void assignClaims() {
+        // Stable, so SkyHoppers at the same distance keep the order they were due in
+        claims.sort(Comparator.comparingDouble(Claim::distanceSquared));
+
+        for(Claim claim : claims) {
+            Item item = claim.item();
+            if(claimedItems.contains(item)) continue;
+
+            SuctionJob suctionJob = claim.suctionJob();
+            if(!claim.destroy()) {
+                int amount = Math.min(getItemAmount(item), suctionJob.suctionAmount());
+                if(suctionJob.hopperCapacity().reserve(claim.itemStack(), amount) <= 0) continue;
+            }
+
+            claimedItems.add(item);
+            suctionJob.claimedItems().add(item);
+        }
+
+        claims.clear();
+        claimedItems.clear();
+    }
+
+    /**
+     * Transfers items from the container above a {@link SkyHopper} into it, like a vanilla hopper would.
+     * @param skyHopper The {@link SkyHopper} to transfer to.
+     * @param hopper The {@link SkyHopper}'s Hopper.
+     * @param amount The amount to transfer.
+     * @return The amount of items the {@link SkyHopper} gained, or -1 if there was no container to pull from.
+     */
+    private int pullFromContainerAbove(@NotNull SkyHopper skyHopper, @NotNull Hopper hopper, int amount) {
+        Block hopperBlock = hopper.getBlock();
+        if(hopperBlock.isBlockPowered()) return -1;
+
+        Block aboveBlock = hopperBlock.getRelative(BlockFace.UP);
+        if(!(aboveBlock.getState(false) instanceof Container aboveContainer)) return -1;
+
+        SkyHopper aboveSkyHopper = hopperManager.getSkyHopper(BlockLocation.of(aboveBlock));
+        if(aboveSkyHopper != null && !aboveSkyHopper.isSkyHopperEnabled()) return -1;
+
+        // The container transfers don't report what they moved, so compare the hopper's five slots instead
+        Inventory hopperInventory = hopper.getInventory();
+        int itemsBefore = countItems(hopperInventory);
+
+        transferContainerToSkyHopper(plugin, skyHopper, aboveContainer, aboveContainer.getInventory(), hopperInventory, amount);
+        hopperManager.handleInventoryChanged(aboveContainer.getInventory());
+
+        return Math.max(countItems(hopperInventory) - itemsBefore, 0);
+    }
+
+    /**
+     * Counts the items in an {@link Inventory}.
+     * @param inventory The {@link Inventory}.
+     * @return The total amount of all items in the {@link Inventory}.
+     */
+    private static int countItems(@NotNull Inventory inventory) {
+        int count = 0;
+        for(int i = 0; i <= (inventory.getSize() - 1); i++) {
+            ItemStack itemStack = inventory.getItem(i);
+            if(itemStack != null) count += itemStack.getAmount();
+        }
+
+        return count;
+    }
+
     /**
      * The logic for taking an Item from the ground and adding it to the {@link SkyHopper}'s Inventory.
      * @param skyHopper The {@link SkyHopper} to add the Item to.
@@ -109,96 +349,66 @@ public class SuctionTask extends BukkitRunnable {
                 continue;
             }
 
-            switch (skyHopper.getFilterType()) {
-                case NONE -> {
-                    int result = addGroundItemToInventory(groundItem, groundItemAmount, suctionItem, hopper.getInventory(), skyHopper.getSuctionAmount());
+            switch(skyHopper.getCompiledFilter().getAction(suctionItemType)) {
+                case ACCEPT -> {
+                    int result = addGroundItemToInventory(groundItem, groundItemAmount, suctionItem, hopper.getInventory(), amountLeft);
                     amountLeft -= result;
 
-                    if(result > 0) {
-                        if(skyHopper.isParticlesEnabled()) {
-                            // Highlight hopper that sucked up the item
-                            hopper.getWorld().spawnParticle(Particle.DUST, hopper.getLocation().clone(), 5, 0.5, 0.5, 0.5, 0.0, new Particle.DustOptions(Color.YELLOW, 1));
-
-                            // Highlight the item that was sucked up
-                            groundItem.getWorld().spawnParticle(Particle.WITCH, hopper.getLocation().clone(), 3, 0.0, 0.0, 0.0, 0.0);
-                        }
+                    if(result > 0 && skyHopper.isParticlesEnabled()) {
+                        particleTask.queueSuctionEffect(hopper, groundItem, false);
                     }
 
                     if(amountLeft == 0) return;
                 }
 
-                case BLACKLIST -> {
-                    List<ItemType> filterItems = skyHopper.getFilterItems();
-                    if (!filterItems.isEmpty() && !filterItems.contains(suctionItemType)) {
-                        int result = addGroundItemToInventory(groundItem, groundItemAmount, suctionItem, hopper.getInventory(), skyHopper.getSuctionAmount());
-                        amountLeft -= result;
-
-                        if(result > 0) {
-                            if(skyHopper.isParticlesEnabled()) {
-                                // Highlight hopper that sucked up the item
-                                hopper.getWorld().spawnParticle(Particle.DUST, hopper.getLocation().clone(), 5, 0.5, 0.5, 0.5, 0.0, new Particle.DustOptions(Color.YELLOW, 1));
-
-                                // Highlight the item that was sucked up
-                                groundItem.getWorld().spawnParticle(Particle.WITCH, hopper.getLocation().clone(), 3, 0.0, 0.0, 0.0, 0.0);
-                            }
-                        }
-
-                        if(amountLeft == 0) return;
-                    }
-                }
-
                 case DESTROY -> {
-                    List<ItemType> filterItems = skyHopper.getFilterItems();
-                    if (!filterItems.isEmpty() && filterItems.contains(suctionItemType)) {
-                        removeAmountFromGroundItem(groundItem, groundItemAmount, suctionAmount);
-
-                        if(skyHopper.isParticlesEnabled()) {
-                            // Highlight hopper that sucked up the item
-                            hopper.getWorld().spawnParticle(Particle.DUST, hopper.getLocation().clone(), 5, 0.5, 0.5, 0.5, 0.0, new Particle.DustOptions(Color.YELLOW, 1));
-
-                            // Highlight the item that was sucked up
-                            groundItem.getWorld().spawnParticle(Particle.WITCH, groundItem.getLocation().clone(), 3, 0.0, 0.0, 0.0, 0.0);
-                        }
+                    removeAmountFromGroundItem(groundItem, groundItemAmount, suctionAmount);
 
-                        return;
+                    if(skyHopper.isParticlesEnabled()) {
+                        particleTask.queueSuctionEffect(hopper, groundItem, true);
                     }
 
-                    int result = addGroundItemToInventory(groundItem, groundItemAmount, suctionItem, hopper.getInventory(), skyHopper.getSuctionAmount());
-                    amountLeft -= result;
-
-                    if(result > 0) {
-                        if(skyHopper.isParticlesEnabled()) {
-                            // Highlight hopper that sucked up the item
-                            hopper.getWorld().spawnParticle(Particle.DUST, hopper.getLocation().clone(), 5, 0.5, 0.5, 0.5, 0.0, new Particle.DustOptions(Color.YELLOW, 1));
-
-                            // Highlight the item that was sucked up
-                            groundItem.getWorld().spawnParticle(Particle.WITCH, hopper.getLocation().clone(), 3, 0.0, 0.0, 0.0, 0.0);
-                        }
-                    }
-
-                    if(amountLeft == 0) return;
+                    return;
                 }
 
-                case WHITELIST -> {
-                    List<ItemType> filterItems = skyHopper.getFilterItems();
-                    if (!filterItems.isEmpty() && filterItems.contains(suctionItemType)) {
-                        int result = addGroundItemToInventory(groundItem, groundItemAmount, suctionItem, hopper.getInventory(), skyHopper.getSuctionAmount());
-                        amountLeft -= result;
-
-                        if(result > 0) {
-                            if(skyHopper.isParticlesEnabled()) {
-                                // Highlight hopper that sucked up the item
-                                hopper.getWorld().spawnParticle(Particle.DUST, hopper.getLocation().clone(), 5, 0.5, 0.5, 0.5, 0.0, new Particle.DustOptions(Color.YELLOW, 1));
-
-                                // Highlight the item that was sucked up
-                                groundItem.getWorld().spawnParticle(Particle.WITCH, hopper.getLocation().clone(), 3, 0.0, 0.0, 0.0, 0.0);
-                            }
-                        }
-
-                        if(amountLeft == 0) return;
-                    }
-                }
+                case REJECT -> {}
             }
         }
     }
+
+    /**
+     * A {@link SkyHopper} that found items nearby this run and the items it claimed.
+     * @param skyHopper The {@link SkyHopper}.
+     * @param hopper The {@link SkyHopper}'s Hopper.
+     * @param hopperCapacity The free space in the Hopper's inventory, less the space reserved for the items it claimed.
+     * @param suctionAmount The amount the {@link SkyHopper} can collect this run.
+     * @param suctionIntervalMs The {@link SkyHopper}'s suction interval in milliseconds.
+     * @param nextSuctionTime The time in milliseconds when the {@link SkyHopper} is next due after collecting.
+     * @param claimedItems The items the {@link SkyHopper} claimed.
+     */
+    private record SuctionJob(
+            @NotNull SkyHopper skyHopper,
+            @NotNull Hopper hopper,
+            @NotNull HopperCapacity hopperCapacity,
+            int suctionAmount,
+            long suctionIntervalMs,
+            long nextSuctionTime,
+            @NotNull List<@NotNull Item> claimedItems) {}
+
+    /**
+     * An item a {@link SuctionJob} could collect and how far the item is from its {@link SkyHopper}.
+     * @param item The item.
+     * @param itemStack The item's {@link ItemStack}.
+     * @param suctionJob The {@link SuctionJob}.
+     * @param distanceSquared The squared distance from the item to the center of the {@link SkyHopper}.
+     * @param destroy Does the {@link SkyHopper} destroy the item instead of collecting it?
+     */
+    private record Claim(@NotNull Item item, @NotNull ItemStack itemStack, @NotNull SuctionJob suctionJob, double distanceSquared, boolean destroy) {}
+
+    /**
+     * A {@link SkyHopper} that is due for suction and the time it was due.
+     * @param skyHopper The {@link SkyHopper}.
+     * @param dueTime The time in milliseconds when the {@link SkyHopper} was due.
+     */
+    private record DueSkyHopper(@NotNull SkyHopper skyHopper, long dueTime) {}
 }
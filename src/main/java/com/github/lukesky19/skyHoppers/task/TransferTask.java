@@ -18,13 +18,16 @@
 package com.github.lukesky19.skyHoppers.task;
 
 import com.github.lukesky19.skyHoppers.SkyHoppers;
+import com.github.lukesky19.skyHoppers.data.BlockLocation;
+import com.github.lukesky19.skyHoppers.hopper.ContainerCapacityCache;
+import com.github.lukesky19.skyHoppers.hopper.HopperScheduler;
 import com.github.lukesky19.skyHoppers.hopper.SkyContainer;
 import com.github.lukesky19.skyHoppers.hopper.SkyHopper;
 import com.github.lukesky19.skyHoppers.manager.HopperManager;
 import com.github.lukesky19.skylib.api.adventure.AdventureUtil;
 import net.kyori.adventure.text.logger.slf4j.ComponentLogger;
-import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.block.Block;
 import org.bukkit.block.Container;
 import org.bukkit.block.Hopper;
 import org.bukkit.inventory.Inventory;
@@ -33,9 +36,11 @@ import org.bukkit.inventory.ItemType;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static com.github.lukesky19.skyHoppers.util.InventoryUtils.isInventoryFull;
+import static com.github.lukesky19.skyHoppers.util.InventoryUtils.transferContainerToSkyHopper;
 import static com.github.lukesky19.skyHoppers.util.InventoryUtils.transferInventoryToContainer;
 
 /**
@@ -45,6 +50,7 @@ public class TransferTask extends BukkitRunnable {
     private final @NotNull SkyHoppers plugin;
     private final @NotNull ComponentLogger logger;
     private final @NotNull HopperManager hopperManager;
+    private final @NotNull List<@NotNull DueSkyHopper> dueSkyHoppers = new ArrayList<>();
 
     /**
      * Constructor
@@ -59,28 +65,88 @@ public class TransferTask extends BukkitRunnable {
 
     /**
      * The function ran every time this task is ran.
+     * Only the {@link SkyHopper}s that are due for a transfer are visited.
+     * A {@link SkyHopper} that missed transfer intervals because the server lagged transfers the amount for each missed interval at once, up to the configured limit.
      */
     @Override
     public void run() {
         if(plugin.areSkyHoppersPaused()) return;
 
-        for(SkyHopper currentSkyHopper : hopperManager.getSkyHoppers()) {
-            if(currentSkyHopper == null
-                    || currentSkyHopper.getLocation() == null
-                    || System.currentTimeMillis() < currentSkyHopper.getNextTransferTime()
-                    || !currentSkyHopper.isSkyHopperEnabled()
-                    || !currentSkyHopper.getLocation().isChunkLoaded()
-                    || !(currentSkyHopper.getLocation().getBlock().getState(false) instanceof Hopper hopper)
-                    || hopper.getBlock().isBlockPowered()
-                    || currentSkyHopper.getLinkedContainers().isEmpty())
-                continue;
+        HopperScheduler transferScheduler = hopperManager.getTransferScheduler();
+        long time = System.currentTimeMillis();
+
+        // Collect the due SkyHoppers first so that SkyHoppers rescheduled below aren't visited twice in the same run
+        SkyHopper dueSkyHopper;
+        while((dueSkyHopper = transferScheduler.poll(time)) != null) {
+            dueSkyHoppers.add(new DueSkyHopper(dueSkyHopper, transferScheduler.getPolledDueTime()));
+        }
 
-            transfer(currentSkyHopper, hopper, hopper.getInventory(), currentSkyHopper.getTransferAmount());
+        try {
+            transferDueSkyHoppers(transferScheduler, time);
+        } finally {
+            // A SkyHopper that wasn't rescheduled, e.g. because it has no location or a transfer failed, would never be due again
+            for(DueSkyHopper due : dueSkyHoppers) {
+                SkyHopper skyHopper = due.skyHopper();
+                long addMs = (long) (skyHopper.getTransferSpeed() * 1000);
+                skyHopper.scheduleTransferCheck(time + Math.max(addMs, 1L));
+            }
+
+            dueSkyHoppers.clear();
+        }
+    }
+
+    /**
+     * Transfers items for each due {@link SkyHopper} and schedules its next transfer.
+     * @param transferScheduler The transfer {@link HopperScheduler}.
+     * @param time The current time in milliseconds.
+     */
+    private void transferDueSkyHoppers(@NotNull HopperScheduler transferScheduler, long time) {
+        // When vanilla hoppers are locked, SkyHoppers also push into the container they face.
+        boolean pushToFacing = hopperManager.isVanillaHopperLockEnabled();
+        int maxCatchUpIntervals = hopperManager.getMaxCatchUpIntervals();
+
+        for(DueSkyHopper due : dueSkyHoppers) {
+            SkyHopper currentSkyHopper = due.skyHopper();
+            BlockLocation location = currentSkyHopper.getBlockLocation();
+            if(location == null) continue;
 
             long addMs = (long) (currentSkyHopper.getTransferSpeed() * 1000);
-            long time = System.currentTimeMillis() + addMs;
 
-            currentSkyHopper.setNextTransferTime(time);
+            if(!location.isChunkLoaded()
+                    || !(location.getBlock() instanceof Block hopperBlock)
+                    || !(hopperBlock.getState(false) instanceof Hopper hopper)) {
+                // Nothing can be transferred right now, check again after another transfer interval.
+                transferScheduler.schedule(currentSkyHopper, time + Math.max(addMs, 1L));
+                continue;
+            }
+
+            // Renew the vanilla hopper's lock until this SkyHopper is due again
+            if(pushToFacing) {
+                hopperManager.lockVanillaHopper(hopper, currentSkyHopper);
+            }
+
+            if(!currentSkyHopper.isSkyHopperEnabled()
+                    || hopperBlock.isBlockPowered()
+                    || (!pushToFacing && currentSkyHopper.getLinkedContainers().isEmpty())) {
+                // Nothing can be transferred right now, check again after another transfer interval.
+                transferScheduler.schedule(currentSkyHopper, time + Math.max(addMs, 1L));
+                continue;
+            }
+
+            int intervals = HopperScheduler.getElapsedIntervals(due.dueTime(), time, addMs, maxCatchUpIntervals);
+            int transferAmount = (int) Math.min(Integer.MAX_VALUE, (long) currentSkyHopper.getTransferAmount() * intervals);
+
+            int amountLeft = transfer(currentSkyHopper, hopper, hopper.getInventory(), transferAmount, time);
+
+            // Pushing shares the transfer amount with the linked containers, so a locked SkyHopper doesn't move more per interval
+            if(pushToFacing && amountLeft > 0) {
+                pushToFacingContainer(currentSkyHopper, hopper, hopperBlock, amountLeft);
+            }
+
+            // Items may have been taken out of this SkyHopper, which can be linked to another SkyHopper
+            hopperManager.getContainerCapacityCache().invalidate(location);
+
+            currentSkyHopper.setNextTransferTime(HopperScheduler.getNextDueTime(due.dueTime(), time, addMs, intervals));
         }
     }
 
@@ -90,8 +156,12 @@ public class TransferTask extends BukkitRunnable {
      * @param hopper The SkyHopper's Hopper.
      * @param hopperInv The SkyHopper's/Hopper's Inventory.
      * @param amount The amount to transfer.
+     * @param time The current time in milliseconds.
+     * @return The amount left to transfer. 0 once a stack was destroyed, since that ends the transfer.
      */
-    private void transfer(@NotNull SkyHopper skyHopper, @NotNull Hopper hopper, @NotNull Inventory hopperInv, int amount) {
+    private int transfer(@NotNull SkyHopper skyHopper, @NotNull Hopper hopper, @NotNull Inventory hopperInv, int amount, long time) {
+        ContainerCapacityCache capacityCache = hopperManager.getContainerCapacityCache();
+
         for (int i = 0; i <= (hopperInv.getSize() - 1); i++) {
             ItemStack hopperItem = hopperInv.getItem(i);
 
@@ -105,67 +175,74 @@ public class TransferTask extends BukkitRunnable {
                 int amountToAdd = Math.min(hopperItem.getAmount(), amount);
 
                 containerLoop:
-                for(SkyContainer skyContainer : skyHopper.getLinkedContainers()) {
-                    Location location = skyContainer.getLocation().clone();
-
-                    if(location.isChunkLoaded()) {
-                        if(location.getBlock().getState(false) instanceof Container container) {
-                            Inventory output = container.getInventory();
-                            List<ItemType> filterItems = skyContainer.getFilterItems();
-
-                            if(isInventoryFull(output)) continue;
-
-                            switch(skyContainer.getFilterType()) {
-                                case NONE -> {
-                                    int result = transferInventoryToContainer(plugin, hopperItem, hopperInv, i, hopper, container, container.getInventory(), skyHopper.getTransferAmount());
-                                    amount -= result;
-                                    amountToAdd -= result;
-
-                                    if (amount <= 0) return;
-                                    if (amountToAdd <= 0) break containerLoop;
-                                }
-
-                                case WHITELIST -> {
-                                    if (!filterItems.isEmpty() && filterItems.contains(hopperItemType)) {
-                                        int result = transferInventoryToContainer(plugin, hopperItem, hopperInv, i, hopper, container, container.getInventory(), skyHopper.getTransferAmount());
-                                        amount -= result;
-                                        amountToAdd -= result;
-
-                                        if (amount <= 0) return;
-                                        if (amountToAdd <= 0) break containerLoop;
-                                    }
-                                }
-
-                                case BLACKLIST -> {
-                                    if (!filterItems.isEmpty() && !filterItems.contains(hopperItemType)) {
-                                        int result = transferInventoryToContainer(plugin, hopperItem, hopperInv, i, hopper, container, container.getInventory(), skyHopper.getTransferAmount());
-                                        amount -= result;
-                                        amountToAdd -= result;
-
-                                        if (amount <= 0) return;
-                                        if (amountToAdd <= 0) break containerLoop;
-                                    }
-                                }
-
-                                case DESTROY -> {
-                                    if (!filterItems.isEmpty() && filterItems.contains(hopperItemType)) {
-                                        hopperInv.setItem(i, new ItemStack(Material.AIR));
-
-                                        return;
-                                    }
-
-                                    int result = transferInventoryToContainer(plugin, hopperItem, hopperInv, i, hopper, container, container.getInventory(), skyHopper.getTransferAmount());
-                                    amount -= result;
-                                    amountToAdd -= result;
-
-                                    if (amount <= 0) return;
-                                    if (amountToAdd <= 0) break containerLoop;
-                                }
-                            }
+                for(SkyContainer skyContainer : skyHopper.getLinkedContainers(hopperItemType)) {
+                    BlockLocation containerLocation = skyContainer.getBlockLocation();
+                    if(capacityCache.isKnownRejected(containerLocation, hopperItem, time)) continue;
+
+                    Container container = skyContainer.getContainer();
+                    if(container == null) continue;
+
+                    Inventory output = container.getInventory();
+
+                    if(isInventoryFull(output)) {
+                        capacityCache.markFull(containerLocation, time);
+                        continue;
+                    }
+
+                    switch(skyContainer.getCompiledFilter().getAction(hopperItemType)) {
+                        case ACCEPT -> {
+                            int result = transferInventoryToContainer(plugin, hopperItem, hopperInv, i, hopper, container, output, amountToAdd);
+                            if(result <= 0) capacityCache.markRejected(containerLocation, hopperItem, time);
+
+                            amount -= result;
+                            amountToAdd -= result;
+
+                            if (amount <= 0) return 0;
+                            if (amountToAdd <= 0) break containerLoop;
                         }
+
+                        case DESTROY -> {
+                            hopperInv.setItem(i, new ItemStack(Material.AIR));
+
+                            return 0;
+                        }
+
+                        case REJECT -> {}
                     }
                 }
             }
         }
+
+        return amount;
     }
-}
\ No newline at end of file
+
+    /**
+     * Transfers items from a {@link SkyHopper} to the container its hopper faces, like a vanilla hopper would.
+     * @param skyHopper The {@link SkyHopper} doing the transfer.
+     * @param hopper The SkyHopper's Hopper.
+     * @param hopperBlock The SkyHopper's {@link Block}.
+     * @param amount The amount to transfer.
+     */
+    private void pushToFacingContainer(@NotNull SkyHopper skyHopper, @NotNull Hopper hopper, @NotNull Block hopperBlock, int amount) {
+        if(!(hopperBlock.getBlockData() instanceof org.bukkit.block.data.type.Hopper hopperData)) return;
+
+        Block facingBlock = hopperBlock.getRelative(hopperData.getFacing());
+        if(!(facingBlock.getState(false) instanceof Container facingContainer)) return;
+
+        SkyHopper facingSkyHopper = hopperManager.getSkyHopper(BlockLocation.of(facingBlock));
+        if(facingSkyHopper != null) {
+            if(!facingSkyHopper.isSkyHopperEnabled()) return;
+
+            transferContainerToSkyHopper(plugin, facingSkyHopper, hopper, hopper.getInventory(), facingContainer.getInventory(), amount);
+        } else {
+            transferInventoryToContainer(plugin, hopper.getInventory(), hopper, facingContainer, facingContainer.getInventory(), amount);
+        }
+    }
+
+    /**
+     * A {@link SkyHopper} that is due for a transfer and the time it was due.
+     * @param skyHopper The {@link SkyHopper}.
+     * @param dueTime The time in milliseconds when the {@link SkyHopper} was due.
+     */
+    private record DueSkyHopper(@NotNull SkyHopper skyHopper, long dueTime) {}
+}
@@ -247,52 +247,33 @@ public class BrewingStandUtils {
                 return;
             }
 
-            switch(skyHopper.getFilterType()) {
-                case NONE -> {
+            switch(skyHopper.getCompiledInputFilter().getAction(bottleType)) {
+                case ACCEPT -> {
                     int transferred = transferInventoryToInventory(sourceInventory, destinationInventory, 0, amount);
                     amount -= transferred;
 
                     if(amount <= 0) return;
                 }
 
-                case WHITELIST -> {
-                    if(skyHopper.getFilterItems().contains(bottleType)) {
-                        int transferred = transferInventoryToInventory(sourceInventory, destinationInventory,0, amount);
-                        amount -= transferred;
-
-                        if(amount <= 0) return;
-                    }
-                }
-
-                case BLACKLIST -> {
-                    if(!skyHopper.getFilterItems().contains(bottleType)) {
-                        int transferred = transferInventoryToInventory(sourceInventory, destinationInventory, 0, amount);
-                        amount -= transferred;
+                case DESTROY -> {
+                    final int destroyResult = bottle1.getAmount() - amount;
+                    if(destroyResult <= 0) {
+                        amount -= bottle1.getAmount();
 
-                        if(amount <= 0) return;
+                        sourceInventory.setItem(0, new ItemStack(Material.AIR));
+                    } else {
+                        bottle1.setAmount(destroyResult);
                     }
-                }
 
-                case DESTROY -> {
-                    if(skyHopper.getFilterItems().contains(bottleType)) {
-                        final int destroyResult = bottle1.getAmount() - amount;
-                        if(destroyResult <= 0) {
-                            amount -= bottle1.getAmount();
-
-                            sourceInventory.setItem(2, new ItemStack(Material.AIR));
-                        } else {
-                            bottle1.setAmount(destroyResult);
-                            amount -= amount;
-                        }
-
-                        if(amount <= 0) return;
-                    }
+                    if(amount <= 0) return;
 
                     int transferred = transferInventoryToInventory(sourceInventory, destinationInventory, 0, amount);
                     amount -= transferred;
 
                     if(amount <= 0) return;
                 }
+
+                case REJECT -> {}
             }
         }
 
@@ -303,52 +284,33 @@ public class BrewingStandUtils {
                 return;
             }
 
-            switch(skyHopper.getFilterType()) {
-                case NONE -> {
+            switch(skyHopper.getCompiledInputFilter().getAction(bottleType)) {
+                case ACCEPT -> {
                     int transferred = transferInventoryToInventory(sourceInventory, destinationInventory, 1, amount);
                     amount -= transferred;
 
                     if(amount <= 0) return;
                 }
 
-                case WHITELIST -> {
-                    if(skyHopper.getFilterItems().contains(bottleType)) {
-                        int transferred = transferInventoryToInventory(sourceInventory, destinationInventory, 1, amount);
-                        amount -= transferred;
-
-                        if(amount <= 0) return;
-                    }
-                }
-
-                case BLACKLIST -> {
-                    if(!skyHopper.getFilterItems().contains(bottleType)) {
-                        int transferred = transferInventoryToInventory(sourceInventory, destinationInventory, 1, amount);
-                        amount -= transferred;
+                case DESTROY -> {
+                    final int destroyResult = bottle2.getAmount() - amount;
+                    if(destroyResult <= 0) {
+                        amount -= bottle2.getAmount();
 
-                        if(amount <= 0) return;
+                        sourceInventory.setItem(1, new ItemStack(Material.AIR));
+                    } else {
+                        bottle2.setAmount(destroyResult);
                     }
-                }
 
-                case DESTROY -> {
-                    if(skyHopper.getFilterItems().contains(bottleType)) {
-                        final int destroyResult = bottle2.getAmount() - amount;
-                        if(destroyResult <= 0) {
-                            amount -= bottle2.getAmount();
-
-                            sourceInventory.setItem(3, new ItemStack(Material.AIR));
-                        } else {
-                            bottle2.setAmount(destroyResult);
-                            amount -= amount;
-                        }
-
-                        if(amount <= 0) return;
-                    }
+                    if(amount <= 0) return;
 
                     int transferred = transferInventoryToInventory(sourceInventory, destinationInventory, 1, amount);
                     amount -= transferred;
 
                     if(amount <= 0) return;
                 }
+
+                case REJECT -> {}
             }
         }
 
@@ -359,36 +321,23 @@ public class BrewingStandUtils {
                 return;
             }
 
-            switch(skyHopper.getFilterType()) {
-                case NONE -> transferInventoryToInventory(sourceInventory, destinationInventory, 2, amount);
-
-                case WHITELIST -> {
-                    if(skyHopper.getFilterItems().contains(bottleType)) {
-                        transferInventoryToInventory(sourceInventory, destinationInventory, 2, amount);
-                    }
-                }
-
-                case BLACKLIST -> {
-                    if(!skyHopper.getFilterItems().contains(bottleType)) {
-                        transferInventoryToInventory(sourceInventory, destinationInventory, 2, amount);
-                    }
-                }
+            switch(skyHopper.getCompiledInputFilter().getAction(bottleType)) {
+                case ACCEPT -> transferInventoryToInventory(sourceInventory, destinationInventory, 2, amount);
 
                 case DESTROY -> {
-                    if(skyHopper.getFilterItems().contains(bottleType)) {
-                        final int destroyResult = bottle3.getAmount() - amount;
-                        if(destroyResult <= 0) {
-                            amount -= bottle3.getAmount();
-
-                            sourceInventory.setItem(3, new ItemStack(Material.AIR));
-                        } else {
-                            bottle3.setAmount(destroyResult);
-                            amount -= amount;
-                        }
+                    final int destroyResult = bottle3.getAmount() - amount;
+                    if(destroyResult <= 0) {
+                        amount -= bottle3.getAmount();
+
+                        sourceInventory.setItem(2, new ItemStack(Material.AIR));
+                    } else {
+                        bottle3.setAmount(destroyResult);
                     }
 
                     transferInventoryToInventory(sourceInventory, destinationInventory, 2, amount);
                 }
+
+                case REJECT -> {}
             }
         }
     }
@@ -145,47 +145,30 @@ public class FurnaceUtils {
             int fuelAmount = fuel.getAmount();
             int amountToAdd = Math.min(fuelAmount, amount);
 
-            switch(skyHopper.getFilterType()) {
-                case NONE -> {
+            switch(skyHopper.getCompiledInputFilter().getAction(fuelType)) {
+                case ACCEPT -> {
                     amount -= transferFurnaceFuelToSkyHopper(fuel, sourceInventory, destinationInventory, amountToAdd);
 
                     if(amount <= 0) return;
                 }
 
-                case WHITELIST -> {
-                    if(skyHopper.getFilterItems().contains(fuelType)) {
-                        amount -= transferFurnaceFuelToSkyHopper(fuel, sourceInventory, destinationInventory, amountToAdd);
-
-                        if(amount <= 0) return;
-                    }
-                }
-
-                case BLACKLIST -> {
-                    if(!skyHopper.getFilterItems().contains(fuelType)) {
-                        amount -= transferFurnaceFuelToSkyHopper(fuel, sourceInventory, destinationInventory, amountToAdd);
-
-                        if(amount <= 0) return;
-                    }
-                }
-
                 case DESTROY -> {
-                    if(skyHopper.getFilterItems().contains(fuelType)) {
-                        final int fuelResult = fuelAmount - amountToAdd;
-                        if (fuelResult <= 0) {
-                            amount -= fuelAmount;
+                    final int fuelResult = fuelAmount - amountToAdd;
+                    if (fuelResult <= 0) {
+                        amount -= fuelAmount;
 
-                            sourceInventory.setFuel(new ItemStack(Material.AIR));
-                        } else {
-                            fuel.setAmount(fuelResult);
-                        }
+                        sourceInventory.setFuel(new ItemStack(Material.AIR));
+                    } else {
+                        fuel.setAmount(fuelResult);
 
-                        if(amount <= 0) return;
+                        // The rest of a destroyed stack is still transferred
+                        amount -= transferFurnaceFuelToSkyHopper(fuel, sourceInventory, destinationInventory, amountToAdd);
                     }
 
-                    amount -= transferFurnaceFuelToSkyHopper(fuel, sourceInventory, destinationInventory, amountToAdd);
-
                     if(amount <= 0) return;
                 }
+
+                case REJECT -> {}
             }
         }
 
@@ -200,37 +183,22 @@ public class FurnaceUtils {
             int outputAmount = output.getAmount();
             int amountToAdd = Math.min(outputAmount, amount);
 
-            switch(skyHopper.getFilterType()) {
-                case NONE -> transferFurnaceResultToSkyHopper(output, sourceInventory, destinationInventory, amountToAdd);
+            switch(skyHopper.getCompiledInputFilter().getAction(outputType)) {
+                case ACCEPT -> transferFurnaceResultToSkyHopper(output, sourceInventory, destinationInventory, amountToAdd);
 
-                case WHITELIST -> {
-                    if(skyHopper.getFilterItems().contains(outputType)) {
-                        transferFurnaceResultToSkyHopper(output, sourceInventory, destinationInventory, amountToAdd);
-                    }
-                }
+                case DESTROY -> {
+                    final int outputResult = outputAmount - amountToAdd;
+                    if (outputResult <= 0) {
+                        sourceInventory.setResult(new ItemStack(Material.AIR));
+                    } else {
+                        output.setAmount(outputResult);
 
-                case BLACKLIST -> {
-                    if(!skyHopper.getFilterItems().contains(outputType)) {
+                        // The rest of a destroyed stack is still transferred
                         transferFurnaceResultToSkyHopper(output, sourceInventory, destinationInventory, amountToAdd);
                     }
                 }
 
-                case DESTROY -> {
-                    if(skyHopper.getFilterItems().contains(outputType)) {
-                        final int outputResult = outputAmount - amountToAdd;
-                        if (outputResult <= 0) {
-                            amount -= outputAmount;
-
-                            sourceInventory.setResult(new ItemStack(Material.AIR));
-                        } else {
-                            output.setAmount(outputResult);
-                        }
-
-                        if(amount <= 0) return;
-                    }
-
-                    transferFurnaceResultToSkyHopper(output, sourceInventory, destinationInventory, amountToAdd);
-                }
+                case REJECT -> {}
             }
         }
     }
@@ -0,0 +1,105 @@
+/*
+    SkyHoppers adds upgradable hoppers that can suction items, transfer items wirelessly to linked containers.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyHoppers.util;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Indexes the empty slots and partial stacks of a destination {@link InventorySnapshot} so items can be added without rescanning it.
+ * Partial stacks are grouped by {@link Material} and only compared with {@link ItemStack#isSimilar(ItemStack)} within that group.
+ * The destination must only be changed through the index until its {@link InventorySnapshot} is committed.
+ */
+public class InventorySlotIndex {
+    private final @NotNull InventorySnapshot destination;
+    private final int @NotNull [] emptySlots;
+    private int emptySlotCount;
+    private int nextEmptySlot;
+    private final @NotNull Map<@NotNull Material, @NotNull List<@NotNull Integer>> partialSlots = new EnumMap<>(Material.class);
+
+    /**
+     * Constructor
+     * @param destination The {@link InventorySnapshot} of the destination to index.
+     */
+    public InventorySlotIndex(@NotNull InventorySnapshot destination) {
+        this.destination = destination;
+        this.emptySlots = new int[destination.getSize()];
+
+        for(int slot = 0; slot < destination.getSize(); slot++) {
+            ItemStack itemStack = destination.getItem(slot);
+
+            if(itemStack == null) {
+                emptySlots[emptySlotCount++] = slot;
+            } else if(itemStack.getAmount() < itemStack.getMaxStackSize()) {
+                partialSlots.computeIfAbsent(itemStack.getType(), material -> new ArrayList<>()).add(slot);
+            }
+        }
+    }
+
+    /**
+     * Adds up to the given amount of an {@link ItemStack} to the destination.
+     * Similar partial stacks are filled before empty slots are used. The source of the {@link ItemStack} is not changed.
+     * @param itemStack The {@link ItemStack} to add.
+     * @param amount The amount to add.
+     * @return The amount added.
+     */
+    public int add(@NotNull ItemStack itemStack, int amount) {
+        int amountToAdd = Math.min(itemStack.getAmount(), amount);
+        if(amountToAdd <= 0) return 0;
+
+        int amountAdded = 0;
+
+        List<Integer> similarSlots = partialSlots.get(itemStack.getType());
+        if(similarSlots != null) {
+            Iterator<Integer> iterator = similarSlots.iterator();
+            while(iterator.hasNext() && amountAdded < amountToAdd) {
+                int destSlot = iterator.next();
+                ItemStack destItem = destination.getItem(destSlot);
+                if(destItem == null || !destItem.isSimilar(itemStack)) continue;
+
+                int maxSize = destItem.getMaxStackSize();
+                int added = Math.min(maxSize - destItem.getAmount(), amountToAdd - amountAdded);
+                int destAmount = destItem.getAmount() + added;
+                destination.setAmount(destSlot, destAmount);
+                amountAdded += added;
+
+                if(destAmount >= maxSize) iterator.remove();
+            }
+        }
+
+        int maxSize = itemStack.getMaxStackSize();
+        while(amountAdded < amountToAdd && nextEmptySlot < emptySlotCount) {
+            int destSlot = emptySlots[nextEmptySlot++];
+            int added = Math.min(maxSize, amountToAdd - amountAdded);
+
+            ItemStack destItem = itemStack.clone();
+            destItem.setAmount(added);
+            destination.setItem(destSlot, destItem);
+            amountAdded += added;
+
+            if(added < maxSize) {
+                partialSlots.computeIfAbsent(destItem.getType(), material -> new ArrayList<>()).add(destSlot);
+            }
+        }
+
+        return amountAdded;
+    }
+}
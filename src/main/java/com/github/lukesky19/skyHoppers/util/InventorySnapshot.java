@@ -0,0 +1,110 @@
+/*
+    SkyHoppers adds upgradable hoppers that can suction items, transfer items wirelessly to linked containers.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyHoppers.util;
+
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.BitSet;
+
+/**
+ * A copy of an {@link Inventory}'s contents that transfers are planned against before being written back with {@link #commit()}.
+ * Slots are copied the first time they are changed, so the {@link Inventory} is not touched until the snapshot is committed.
+ * The snapshot must be committed before anything else changes the {@link Inventory}, or those changes will be overwritten.
+ */
+public class InventorySnapshot {
+    private final @NotNull Inventory inventory;
+    private final @Nullable ItemStack @NotNull [] contents;
+    private final @NotNull BitSet changedSlots = new BitSet();
+
+    /**
+     * Constructor
+     * @param inventory The {@link Inventory} to take a snapshot of.
+     */
+    public InventorySnapshot(@NotNull Inventory inventory) {
+        this.inventory = inventory;
+        this.contents = inventory.getContents();
+    }
+
+    /**
+     * Get the number of slots in the snapshot.
+     * @return The number of slots.
+     */
+    public int getSize() {
+        return contents.length;
+    }
+
+    /**
+     * Get the {@link ItemStack} in a slot. The {@link ItemStack} must not be modified, use {@link #setAmount(int, int)} or {@link #setItem(int, ItemStack)} instead.
+     * @param slot The slot.
+     * @return The {@link ItemStack} or null if the slot is empty.
+     */
+    public @Nullable ItemStack getItem(int slot) {
+        ItemStack itemStack = contents[slot];
+        if(itemStack == null || itemStack.isEmpty()) return null;
+
+        return itemStack;
+    }
+
+    /**
+     * Sets the {@link ItemStack} in a slot.
+     * @param slot The slot.
+     * @param itemStack The {@link ItemStack} or null to empty the slot.
+     */
+    public void setItem(int slot, @Nullable ItemStack itemStack) {
+        contents[slot] = itemStack;
+        changedSlots.set(slot);
+    }
+
+    /**
+     * Sets the amount of the {@link ItemStack} in a slot, emptying the slot if the amount is 0 or less.
+     * @param slot The slot. The slot must not be empty.
+     * @param amount The new amount.
+     */
+    public void setAmount(int slot, int amount) {
+        if(amount <= 0) {
+            setItem(slot, null);
+            return;
+        }
+
+        ItemStack itemStack = contents[slot];
+        if(itemStack == null) return;
+
+        // Copy the stack the first time it changes so the Inventory is untouched until commit
+        if(!changedSlots.get(slot)) {
+            itemStack = itemStack.clone();
+            contents[slot] = itemStack;
+            changedSlots.set(slot);
+        }
+
+        itemStack.setAmount(amount);
+    }
+
+    /**
+     * Writes every changed slot back to the {@link Inventory} once.
+     */
+    public void commit() {
+        for(int slot = changedSlots.nextSetBit(0); slot >= 0; slot = changedSlots.nextSetBit(slot + 1)) {
+            inventory.setItem(slot, contents[slot]);
+        }
+
+        changedSlots.clear();
+    }
+}
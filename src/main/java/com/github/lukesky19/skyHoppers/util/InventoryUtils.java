@@ -17,13 +17,12 @@
 */
 package com.github.lukesky19.skyHoppers.util;
 
-import com.ghostchu.quickshop.QuickShop;
-import com.ghostchu.quickshop.api.shop.Shop;
 import com.github.lukesky19.skyHoppers.SkyHoppers;
+import com.github.lukesky19.skyHoppers.hook.shop.QuickShopHook;
+import com.github.lukesky19.skyHoppers.hopper.FilterAction;
 import com.github.lukesky19.skyHoppers.hopper.SkyHopper;
 import com.github.lukesky19.skylib.api.adventure.AdventureUtil;
 import net.kyori.adventure.text.logger.slf4j.ComponentLogger;
-import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.block.Container;
 import org.bukkit.block.Crafter;
@@ -53,75 +52,64 @@ public class InventoryUtils {
      */
     public static int transferInventoryToSkyHopper(@NotNull ComponentLogger logger, @NotNull SkyHopper skyHopper, @NotNull Inventory sourceInventory, @NotNull Inventory destinationInventory, int amount) {
         int amountTransferred = 0;
+        InventorySnapshot source = new InventorySnapshot(sourceInventory);
+        InventorySnapshot destination = null;
+        InventorySlotIndex destinationIndex = null;
 
-        for(int i = 0; i <= (sourceInventory.getSize() - 1); i++) {
-            ItemStack sourceItem = sourceInventory.getItem(i);
+        for(int i = 0; i <= (source.getSize() - 1); i++) {
+            ItemStack sourceItem = source.getItem(i);
 
-            if(sourceItem != null && !sourceItem.isEmpty()) {
+            if(sourceItem != null) {
                 ItemType sourceItemType = sourceItem.getType().asItemType();
                 if(sourceItemType == null) {
                     logger.warn(AdventureUtil.serialize("Unable to transfer an ItemStack to a SkyHopper as the ItemType is null. [Method: transferInventoryToSkyHopper]"));
                     continue;
                 }
 
-                switch(skyHopper.getFilterType()) {
-                    case NONE -> {
-                        int transferred = transferInventoryToInventory(sourceInventory, destinationInventory, i, amount);
-                        amount -= transferred;
-                        amountTransferred += transferred;
+                FilterAction action = skyHopper.getCompiledInputFilter().getAction(sourceItemType);
+                if(action == FilterAction.DESTROY) {
+                    int destroyed = Math.min(sourceItem.getAmount(), amount);
+                    source.setAmount(i, sourceItem.getAmount() - destroyed);
 
-                        if(amount <= 0) return amountTransferred;
+                    if(destroyed < amount) {
+                        amount -= destroyed;
+                        continue;
                     }
 
-                    case WHITELIST -> {
-                        if(skyHopper.getFilterItems().contains(sourceItemType)) {
-                            int transferred = transferInventoryToInventory(sourceInventory, destinationInventory, i, amount);
-                            amount -= transferred;
-                            amountTransferred += transferred;
-
-                            if(amount <= 0) return amountTransferred;
-                        }
-                    }
-
-                    case BLACKLIST -> {
-                        if(!skyHopper.getFilterItems().contains(sourceItemType)) {
-                            int transferred = transferInventoryToInventory(sourceInventory, destinationInventory, i, amount);
-                            amount -= transferred;
-                            amountTransferred += transferred;
+                    // The rest of a destroyed stack is still transferred
+                    sourceItem = source.getItem(i);
+                    if(sourceItem == null) continue;
+                }
 
-                            if(amount <= 0) return amountTransferred;
-                        }
+                if(action != FilterAction.REJECT) {
+                    if(destinationIndex == null) {
+                        destination = new InventorySnapshot(destinationInventory);
+                        destinationIndex = new InventorySlotIndex(destination);
                     }
 
-                    case DESTROY -> {
-                        if(skyHopper.getFilterItems().contains(sourceItemType)) {
-                            final int destroyResult = sourceItem.getAmount() - amount;
-                            if(destroyResult <= 0) {
-                                amount -= sourceItem.getAmount();
-
-                                sourceInventory.setItem(i, new ItemStack(Material.AIR));
-                            } else {
-                                sourceItem.setAmount(destroyResult);
-                            }
-
-                            if(amount <= 0) return amountTransferred;
-                        }
-
-                        int transferred = transferInventoryToInventory(sourceInventory, destinationInventory, i, amount);
-                        amount -= transferred;
-                        amountTransferred += transferred;
+                    int transferred = destinationIndex.add(sourceItem, amount);
+                    if(transferred > 0) source.setAmount(i, sourceItem.getAmount() - transferred);
 
-                        if(amount <= 0) return amountTransferred;
-                    }
+                    amount -= transferred;
+                    amountTransferred += transferred;
                 }
+
+                if(amount <= 0) break;
             }
         }
 
+        // Write both sides once all moves are planned
+        source.commit();
+        if(destination != null) destination.commit();
+
         return amountTransferred;
     }
 
     /**
      * Transfers items from one Inventory to another.
+     * Similar partial stacks are filled before empty slots are used.
+     * The destination is read slot by slot in one pass instead of being copied, since only one slot is transferred.
+     * Use an {@link InventorySlotIndex} over {@link InventorySnapshot}s when transferring several slots between the same Inventories.
      * @param sourceInventory The Inventory to transfer from.
      * @param destinationInventory The Inventory to transfer to.
      * @param sourceSlot The slot containing the item to transfer.
@@ -129,37 +117,50 @@ public class InventoryUtils {
      * @return The amount transferred.
      */
     public static int transferInventoryToInventory(Inventory sourceInventory, Inventory destinationInventory, int sourceSlot, int amount) {
-        int amountTransferred = 0;
+        ItemStack sourceItem = sourceInventory.getItem(sourceSlot);
+        if(sourceItem == null || sourceItem.isEmpty()) return 0;
 
-        for(int i = 0; i <= (destinationInventory.getSize() - 1); i++) {
-            ItemStack sourceItemStack = sourceInventory.getItem(sourceSlot);
-            if(sourceItemStack == null || sourceItemStack.getType() == Material.AIR) return amountTransferred;
-            int sourceAmount = sourceItemStack.getAmount();
+        int amountToAdd = Math.min(sourceItem.getAmount(), amount);
+        int amountTransferred = 0;
+        int firstEmptySlot = -1;
 
-            int amountToAdd = Math.min(sourceAmount, amount);
+        // Fill similar partial stacks, remembering where the first empty slot is for anything left over
+        for(int i = 0; i <= (destinationInventory.getSize() - 1) && amountTransferred < amountToAdd; i++) {
             ItemStack destItem = destinationInventory.getItem(i);
 
-            if(destItem != null && !destItem.isEmpty()) {
-                if(destItem.isSimilar(sourceItemStack)) {
-                    int transferred = addToItem(sourceItemStack, destItem, sourceSlot, sourceInventory, amountToAdd);
+            if(destItem == null || destItem.isEmpty()) {
+                if(firstEmptySlot < 0) firstEmptySlot = i;
+                continue;
+            }
 
-                    amount -= transferred;
-                    sourceAmount -= transferred;
-                    amountTransferred += transferred;
+            int maxSize = destItem.getMaxStackSize();
+            if(destItem.getAmount() >= maxSize || !destItem.isSimilar(sourceItem)) continue;
 
-                    if(sourceAmount <= 0) return amountTransferred;
-                    if(amount <= 0) return amountTransferred;
-                }
-            } else {
-                int transferred = setItem(sourceItemStack, sourceInventory, destinationInventory, sourceSlot, i, amountToAdd);
+            int added = Math.min(maxSize - destItem.getAmount(), amountToAdd - amountTransferred);
+            destItem.setAmount(destItem.getAmount() + added);
+            destinationInventory.setItem(i, destItem);
+            amountTransferred += added;
+        }
 
-                amount -= transferred;
-                sourceAmount -= transferred;
-                amountTransferred += transferred;
+        int maxSize = sourceItem.getMaxStackSize();
+        for(int i = firstEmptySlot; i >= 0 && i <= (destinationInventory.getSize() - 1) && amountTransferred < amountToAdd; i++) {
+            ItemStack destItem = destinationInventory.getItem(i);
+            if(destItem != null && !destItem.isEmpty()) continue;
 
-                if(sourceAmount <= 0) return amountTransferred;
-                if(amount <= 0) return amountTransferred;
-            }
+            int added = Math.min(maxSize, amountToAdd - amountTransferred);
+            destItem = sourceItem.clone();
+            destItem.setAmount(added);
+            destinationInventory.setItem(i, destItem);
+            amountTransferred += added;
+        }
+
+        if(amountTransferred <= 0) return 0;
+
+        final int sourceResult = sourceItem.getAmount() - amountTransferred;
+        if(sourceResult <= 0) {
+            sourceInventory.setItem(sourceSlot, new ItemStack(Material.AIR));
+        } else {
+            sourceItem.setAmount(sourceResult);
         }
 
         return amountTransferred;
@@ -186,17 +187,9 @@ public class InventoryUtils {
 
             // If any items were transferred, update the QuickShop shop sign (if container is also a QuickShop shop)
             if(result > 0) {
-                QuickShop quickShop = plugin.getQuickShop();
-                if(quickShop != null) {
-                    Location cloneSrc = sourceContainer.getLocation().clone();
-                    cloneSrc.setX(cloneSrc.getBlockX());
-                    cloneSrc.setY(cloneSrc.getBlockY());
-                    cloneSrc.setZ(cloneSrc.getBlockZ());
-
-                    Shop srcShop = quickShop.getShopManager().getShopIncludeAttached(cloneSrc);
-                    if(srcShop != null) {
-                        srcShop.setSignText(quickShop.text().findRelativeLanguages(srcShop.getOwner(), false));
-                    }
+                QuickShopHook quickShopHook = plugin.getQuickShopHook();
+                if(quickShopHook != null) {
+                    quickShopHook.queueSignUpdate(sourceContainer);
                 }
             }
         }
@@ -245,41 +238,34 @@ public class InventoryUtils {
                 }
             }
         } else {
-            for(int i = 0; i <= (sourceInventory.getSize() - 1); i++) {
-                ItemStack sourceItem = sourceInventory.getItem(i);
-                if (sourceItem != null && !sourceItem.isEmpty()) {
-                    int result = transferInventoryToInventory(sourceInventory, destinationInventory, i, amount);
-                    amount -= result;
-
-                    // If any items were transferred, update the QuickShop shop sign (if container is also a QuickShop shop)
+            InventorySnapshot source = new InventorySnapshot(sourceInventory);
+            InventorySnapshot destination = new InventorySnapshot(destinationInventory);
+            InventorySlotIndex destinationIndex = new InventorySlotIndex(destination);
+            boolean transferredAny = false;
+
+            for(int i = 0; i <= (source.getSize() - 1); i++) {
+                ItemStack sourceItem = source.getItem(i);
+                if(sourceItem != null) {
+                    int result = destinationIndex.add(sourceItem, amount);
                     if(result > 0) {
-                        QuickShop quickShop = plugin.getQuickShop();
-                        if(quickShop != null) {
-                            Location cloneDest = destinationContainer.getLocation();
-                            cloneDest.setX(cloneDest.getBlockX());
-                            cloneDest.setY(cloneDest.getBlockY());
-                            cloneDest.setZ(cloneDest.getBlockZ());
-
-                            Location cloneSrc = sourceContainer.getLocation().clone();
-                            cloneSrc.setX(cloneSrc.getBlockX());
-                            cloneSrc.setY(cloneSrc.getBlockY());
-                            cloneSrc.setZ(cloneSrc.getBlockZ());
-
-                            Shop destShop = quickShop.getShopManager().getShopIncludeAttached(cloneDest);
-                            Shop srcShop = quickShop.getShopManager().getShopIncludeAttached(cloneSrc);
-                            if(destShop != null) {
-                                destShop.setSignText(quickShop.text().findRelativeLanguages(destShop.getOwner(), false));
-                            }
-
-                            if(srcShop != null) {
-                                srcShop.setSignText(quickShop.text().findRelativeLanguages(srcShop.getOwner(), false));
-                            }
-                        }
+                        source.setAmount(i, sourceItem.getAmount() - result);
+                        transferredAny = true;
                     }
 
-                    if(amount <= 0) return;
+                    amount -= result;
+
+                    if(amount <= 0) break;
                 }
             }
+
+            if(!transferredAny) return;
+
+            // Write both sides once all moves are planned
+            source.commit();
+            destination.commit();
+
+            // Update the QuickShop shop signs (if either container is also a QuickShop shop)
+            updateShopSigns(plugin, sourceContainer, destinationContainer);
         }
     }
 
@@ -305,34 +291,27 @@ public class InventoryUtils {
 
             // If any items were transferred, update the QuickShop shop sign (if container is also a QuickShop shop)
             if(result > 0) {
-                QuickShop quickShop = plugin.getQuickShop();
-                if(quickShop != null) {
-                    Location cloneDest = destinationContainer.getLocation();
-                    cloneDest.setX(cloneDest.getBlockX());
-                    cloneDest.setY(cloneDest.getBlockY());
-                    cloneDest.setZ(cloneDest.getBlockZ());
-
-                    Location cloneSrc = sourceContainer.getLocation().clone();
-                    cloneSrc.setX(cloneSrc.getBlockX());
-                    cloneSrc.setY(cloneSrc.getBlockY());
-                    cloneSrc.setZ(cloneSrc.getBlockZ());
-
-                    Shop destShop = quickShop.getShopManager().getShopIncludeAttached(cloneDest);
-                    Shop srcShop = quickShop.getShopManager().getShopIncludeAttached(cloneSrc);
-                    if(destShop != null) {
-                        destShop.setSignText(quickShop.text().findRelativeLanguages(destShop.getOwner(), false));
-                    }
-
-                    if(srcShop != null) {
-                        srcShop.setSignText(quickShop.text().findRelativeLanguages(srcShop.getOwner(), false));
-                    }
-                }
+                updateShopSigns(plugin, sourceContainer, destinationContainer);
             }
 
             return result;
         }
     }
 
+    /**
+     * Queues a sign update for the QuickShop shops at the source and destination containers, if QuickShop is installed.
+     * @param plugin A {@link SkyHoppers} instance.
+     * @param sourceContainer The Container items were transferred from.
+     * @param destinationContainer The Container items were transferred to.
+     */
+    private static void updateShopSigns(@NotNull SkyHoppers plugin, @NotNull Container sourceContainer, @NotNull Container destinationContainer) {
+        QuickShopHook quickShopHook = plugin.getQuickShopHook();
+        if(quickShopHook == null) return;
+
+        quickShopHook.queueSignUpdate(destinationContainer);
+        quickShopHook.queueSignUpdate(sourceContainer);
+    }
+
     /**
      * Takes an Item on the ground and adds it to an Inventory.
      * @param groundItem The Item entity on the ground.
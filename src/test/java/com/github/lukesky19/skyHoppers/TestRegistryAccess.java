@@ -0,0 +1,80 @@
+/*
+    SkyHoppers adds upgradable hoppers that can suction items, transfer items wirelessly to linked containers.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyHoppers;
+
+import io.papermc.paper.registry.RegistryAccess;
+import io.papermc.paper.registry.RegistryKey;
+import net.kyori.adventure.key.Key;
+import org.bukkit.Keyed;
+import org.bukkit.Material;
+import org.bukkit.Registry;
+import org.bukkit.inventory.ItemType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.mockito.stubbing.Answer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * A {@link RegistryAccess} for tests, loaded through the service file in the test resources.
+ * Without a server the registries can't be loaded, so {@link Material#asItemType()} would fail.
+ * The item registry returns one mocked {@link ItemType} per key that maps back to its {@link Material}. Every other registry is an empty mock.
+ */
+public class TestRegistryAccess implements RegistryAccess {
+    private final @NotNull Map<@NotNull String, ItemType.@NotNull Typed<?>> itemTypes = new ConcurrentHashMap<>();
+    private final @NotNull Registry<?> itemRegistry = mock(Registry.class, (Answer<Object>) invocation -> {
+        Object[] arguments = invocation.getArguments();
+        if(arguments.length == 1 && arguments[0] instanceof Key key && Keyed.class.isAssignableFrom(invocation.getMethod().getReturnType())) {
+            return getItemType(key);
+        }
+
+        return RETURNS_DEFAULTS.answer(invocation);
+    });
+
+    /**
+     * Get the mocked {@link ItemType} for a key.
+     * @param key The {@link Key} of the {@link ItemType}.
+     * @return The mocked {@link ItemType}.
+     */
+    private @NotNull ItemType getItemType(@NotNull Key key) {
+        return itemTypes.computeIfAbsent(key.asString(), id -> {
+            ItemType.Typed<?> itemType = mock(ItemType.Typed.class, RETURNS_MOCKS);
+            doReturn(Material.matchMaterial(id)).when(itemType).asMaterial();
+            return itemType;
+        });
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "removal"})
+    public <T extends Keyed> @Nullable Registry<T> getRegistry(@NotNull Class<T> type) {
+        if(type == ItemType.class) return (Registry<T>) itemRegistry;
+
+        return mock(Registry.class);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends Keyed> @NotNull Registry<T> getRegistry(@NotNull RegistryKey<T> registryKey) {
+        if(registryKey == RegistryKey.ITEM) return (Registry<T>) itemRegistry;
+
+        return mock(Registry.class);
+    }
+}
@@ -0,0 +1,167 @@
+/*
+    SkyHoppers adds upgradable hoppers that can suction items, transfer items wirelessly to linked containers.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyHoppers.hook.shop;
+
+import com.ghostchu.quickshop.QuickShop;
+import com.ghostchu.quickshop.api.shop.Shop;
+import com.ghostchu.quickshop.api.shop.ShopManager;
+import com.github.lukesky19.skyHoppers.SkyHoppers;
+import com.github.lukesky19.skyHoppers.data.BlockLocation;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.block.Container;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the shop lookup cache in {@link QuickShopHook}.
+ */
+public class QuickShopHookTest {
+    private final @NotNull UUID worldId = UUID.randomUUID();
+    private World world;
+    private SkyHoppers plugin;
+    private BukkitScheduler scheduler;
+    private ShopManager shopManager;
+    private QuickShopHook quickShopHook;
+
+    /**
+     * Creates a {@link QuickShopHook} whose {@link ShopManager} finds no shops unless stubbed.
+     */
+    @BeforeEach
+    public void setUp() {
+        world = mock(World.class);
+        when(world.getUID()).thenReturn(worldId);
+
+        scheduler = mock(BukkitScheduler.class);
+        Server server = mock(Server.class);
+        when(server.getScheduler()).thenReturn(scheduler);
+        plugin = mock(SkyHoppers.class);
+        when(plugin.getServer()).thenReturn(server);
+
+        shopManager = mock(ShopManager.class);
+        QuickShop quickShop = mock(QuickShop.class, RETURNS_DEEP_STUBS);
+        when(quickShop.getShopManager()).thenReturn(shopManager);
+
+        quickShopHook = new QuickShopHook(plugin, quickShop);
+    }
+
+    /**
+     * A container that is not a shop is only looked up once, and no sign update is scheduled for it.
+     */
+    @Test
+    public void missesAreCached() {
+        Container container = mockContainer(0, 64, 0);
+
+        quickShopHook.queueSignUpdate(container);
+        quickShopHook.queueSignUpdate(container);
+
+        verify(shopManager, times(1)).getShopIncludeAttached(container.getLocation());
+        verifyNoInteractions(scheduler);
+    }
+
+    /**
+     * Invalidating a position forgets only that position.
+     */
+    @Test
+    public void invalidateForgetsOnlyThatPosition() {
+        Container first = mockContainer(0, 64, 0);
+        Container second = mockContainer(1, 64, 0);
+        quickShopHook.queueSignUpdate(first);
+        quickShopHook.queueSignUpdate(second);
+
+        quickShopHook.invalidate(new BlockLocation(worldId, 0, 64, 0));
+        quickShopHook.queueSignUpdate(first);
+        quickShopHook.queueSignUpdate(second);
+
+        verify(shopManager, times(2)).getShopIncludeAttached(first.getLocation());
+        verify(shopManager, times(1)).getShopIncludeAttached(second.getLocation());
+    }
+
+    /**
+     * Unloading a chunk forgets only that chunk's positions, and a shop being created or deleted forgets every position.
+     */
+    @Test
+    public void chunkUnloadAndShopChangesForgetPositions() {
+        Container inChunk = mockContainer(0, 64, 0);
+        Container inOtherChunk = mockContainer(16, 64, 0);
+        quickShopHook.queueSignUpdate(inChunk);
+        quickShopHook.queueSignUpdate(inOtherChunk);
+
+        quickShopHook.invalidateChunk(worldId, Chunk.getChunkKey(0, 0));
+        quickShopHook.queueSignUpdate(inChunk);
+        quickShopHook.queueSignUpdate(inOtherChunk);
+
+        verify(shopManager, times(2)).getShopIncludeAttached(inChunk.getLocation());
+        verify(shopManager, times(1)).getShopIncludeAttached(inOtherChunk.getLocation());
+
+        quickShopHook.handleShopChanged();
+        quickShopHook.queueSignUpdate(inChunk);
+        quickShopHook.queueSignUpdate(inOtherChunk);
+
+        verify(shopManager, times(3)).getShopIncludeAttached(inChunk.getLocation());
+        verify(shopManager, times(2)).getShopIncludeAttached(inOtherChunk.getLocation());
+    }
+
+    /**
+     * A shop changed by several transfers in one tick is looked up once and has its sign refreshed once.
+     */
+    @Test
+    public void shopSignIsRefreshedOncePerTick() {
+        Container container = mockContainer(0, 64, 0);
+        Shop shop = mock(Shop.class);
+        when(shopManager.getShopIncludeAttached(container.getLocation())).thenReturn(shop);
+
+        quickShopHook.queueSignUpdate(container);
+        quickShopHook.queueSignUpdate(container);
+        verify(scheduler, times(1)).runTask(eq(plugin), any(Runnable.class));
+
+        quickShopHook.updateSigns();
+        quickShopHook.updateSigns();
+
+        verify(shopManager, times(1)).getShopIncludeAttached(container.getLocation());
+        verify(shop, times(1)).getOwner();
+    }
+
+    /**
+     * Creates a mocked {@link Container} at a position.
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @param z The z coordinate.
+     * @return The mocked {@link Container}.
+     */
+    private @NotNull Container mockContainer(int x, int y, int z) {
+        Location location = new Location(world, x, y, z);
+        Container container = mock(Container.class);
+        when(container.getWorld()).thenReturn(world);
+        when(container.getX()).thenReturn(x);
+        when(container.getY()).thenReturn(y);
+        when(container.getZ()).thenReturn(z);
+        when(container.getLocation()).thenReturn(location);
+        return container;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+    SkyHoppers adds upgradable hoppers that can suction items, transfer items wirelessly to linked containers.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyHoppers.hopper;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemType;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link CompiledFilter}.
+ */
+public class CompiledFilterTest {
+    private final @NotNull ItemType stone = mockItemType(Material.STONE);
+    private final @NotNull ItemType dirt = mockItemType(Material.DIRT);
+
+    /**
+     * Suction, pickup and linked container transfers reject every item when the blacklist is empty.
+     */
+    @Test
+    public void emptyBlacklistRejectsEverything() {
+        CompiledFilter filter = CompiledFilter.compile(FilterType.BLACKLIST, new ItemFilter(List.of()), false);
+
+        assertEquals(FilterAction.REJECT, filter.getAction(stone));
+        assertEquals(FilterAction.REJECT, filter.getAction(dirt));
+    }
+
+    /**
+     * Pulling from the container above a SkyHopper accepts every item when the blacklist is empty.
+     */
+    @Test
+    public void emptyInputBlacklistAcceptsEverything() {
+        CompiledFilter filter = CompiledFilter.compile(FilterType.BLACKLIST, new ItemFilter(List.of()), true);
+
+        assertEquals(FilterAction.ACCEPT, filter.getAction(stone));
+        assertEquals(FilterAction.ACCEPT, filter.getAction(dirt));
+    }
+
+    /**
+     * An empty whitelist has nothing to accept, so every item is rejected on every path.
+     */
+    @Test
+    public void emptyWhitelistRejectsEverything() {
+        assertEquals(FilterAction.REJECT, CompiledFilter.compile(FilterType.WHITELIST, new ItemFilter(List.of()), false).getAction(stone));
+        assertEquals(FilterAction.REJECT, CompiledFilter.compile(FilterType.WHITELIST, new ItemFilter(List.of()), true).getAction(stone));
+    }
+
+    /**
+     * An empty destroy filter has nothing to destroy, so every item is accepted.
+     */
+    @Test
+    public void emptyDestroyAcceptsEverything() {
+        CompiledFilter filter = CompiledFilter.compile(FilterType.DESTROY, new ItemFilter(List.of()), false);
+
+        assertEquals(FilterAction.ACCEPT, filter.getAction(stone));
+    }
+
+    /**
+     * A whitelist accepts the items in it and rejects the rest.
+     */
+    @Test
+    public void whitelistAcceptsOnlyFilterItems() {
+        CompiledFilter filter = CompiledFilter.compile(FilterType.WHITELIST, new ItemFilter(List.of(stone)), false);
+
+        assertEquals(FilterAction.ACCEPT, filter.getAction(stone));
+        assertEquals(FilterAction.REJECT, filter.getAction(dirt));
+    }
+
+    /**
+     * A blacklist rejects the items in it and accepts the rest.
+     */
+    @Test
+    public void blacklistRejectsOnlyFilterItems() {
+        CompiledFilter filter = CompiledFilter.compile(FilterType.BLACKLIST, new ItemFilter(List.of(stone)), false);
+
+        assertEquals(FilterAction.REJECT, filter.getAction(stone));
+        assertEquals(FilterAction.ACCEPT, filter.getAction(dirt));
+    }
+
+    /**
+     * A destroy filter destroys the items in it and accepts the rest.
+     */
+    @Test
+    public void destroyDestroysOnlyFilterItems() {
+        CompiledFilter filter = CompiledFilter.compile(FilterType.DESTROY, new ItemFilter(List.of(stone)), false);
+
+        assertEquals(FilterAction.DESTROY, filter.getAction(stone));
+        assertEquals(FilterAction.ACCEPT, filter.getAction(dirt));
+    }
+
+    /**
+     * Creates a mocked {@link ItemType} for a {@link Material}.
+     * @param material The {@link Material}.
+     * @return The mocked {@link ItemType}.
+     */
+    private static @NotNull ItemType mockItemType(@NotNull Material material) {
+        ItemType itemType = mock(ItemType.class);
+        when(itemType.asMaterial()).thenReturn(material);
+        return itemType;
+    }
+}
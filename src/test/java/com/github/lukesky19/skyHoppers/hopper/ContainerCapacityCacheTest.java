@@ -0,0 +1,81 @@
+/*
+    SkyHoppers adds upgradable hoppers that can suction items, transfer items wirelessly to linked containers.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyHoppers.hopper;
+
+import com.github.lukesky19.skyHoppers.data.BlockLocation;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link ContainerCapacityCache}.
+ */
+public class ContainerCapacityCacheTest {
+    private final @NotNull BlockLocation location = new BlockLocation(UUID.randomUUID(), 0, 64, 0);
+
+    /**
+     * An item that didn't fit must not reject an item of the same material that isn't similar to it, such as one with different meta.
+     */
+    @Test
+    public void rejectionIsKeyedBySimilarItem() {
+        ItemStack namedSword = mockItemStack();
+        ItemStack otherNamedSword = mockItemStack();
+        ItemStack plainSword = mockItemStack();
+        when(namedSword.isSimilar(otherNamedSword)).thenReturn(true);
+
+        ContainerCapacityCache capacityCache = new ContainerCapacityCache();
+        capacityCache.markRejected(location, namedSword, 0L);
+
+        assertTrue(capacityCache.isKnownRejected(location, namedSword, 0L));
+        assertTrue(capacityCache.isKnownRejected(location, otherNamedSword, 0L));
+        assertFalse(capacityCache.isKnownRejected(location, plainSword, 0L));
+        assertFalse(capacityCache.isKnownFull(location, 0L));
+    }
+
+    /**
+     * A full container rejects every item, and an entry expires after {@link ContainerCapacityCache#EXPIRY_MS}.
+     */
+    @Test
+    public void fullRejectsEveryItemUntilExpiry() {
+        ItemStack itemStack = mockItemStack();
+
+        ContainerCapacityCache capacityCache = new ContainerCapacityCache();
+        capacityCache.markFull(location, 0L);
+
+        assertTrue(capacityCache.isKnownRejected(location, itemStack, ContainerCapacityCache.EXPIRY_MS - 1));
+        assertFalse(capacityCache.isKnownRejected(location, itemStack, ContainerCapacityCache.EXPIRY_MS));
+        assertTrue(capacityCache.isEmpty());
+    }
+
+    /**
+     * Creates a mocked {@link ItemStack} whose single-item copy is itself and that is only similar to itself unless stubbed.
+     * @return The mocked {@link ItemStack}.
+     */
+    private static @NotNull ItemStack mockItemStack() {
+        ItemStack itemStack = mock(ItemStack.class);
+        when(itemStack.asOne()).thenReturn(itemStack);
+        when(itemStack.isSimilar(itemStack)).thenReturn(true);
+        return itemStack;
+    }
+}
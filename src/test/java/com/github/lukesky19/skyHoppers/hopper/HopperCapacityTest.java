@@ -0,0 +1,98 @@
+/*
+    SkyHoppers adds upgradable hoppers that can suction items, transfer items wirelessly to linked containers.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyHoppers.hopper;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link HopperCapacity}.
+ */
+public class HopperCapacityTest {
+    /**
+     * Every {@link HopperCapacity#canFit(ItemStack)} check reuses the contents read when the snapshot was taken.
+     */
+    @Test
+    public void canFitReusesSnapshot() {
+        ItemStack partialStone = mockItemStack(Material.STONE, 10);
+        ItemStack fullDirt = mockItemStack(Material.DIRT, 64);
+
+        Inventory inventory = mock(Inventory.class);
+        when(inventory.getContents()).thenReturn(new ItemStack[] {partialStone, fullDirt});
+
+        ItemStack stone = mockItemStack(Material.STONE, 1);
+        ItemStack dirt = mockItemStack(Material.DIRT, 1);
+        when(partialStone.isSimilar(stone)).thenReturn(true);
+
+        HopperCapacity hopperCapacity = HopperCapacity.of(inventory);
+
+        assertFalse(hopperCapacity.isFull());
+        assertTrue(hopperCapacity.canFit(stone));
+        assertTrue(hopperCapacity.canFit(stone));
+        assertFalse(hopperCapacity.canFit(dirt));
+        verify(inventory, times(1)).getContents();
+        verify(fullDirt, never()).isSimilar(any());
+    }
+
+    /**
+     * Space reserved for a claimed item is no longer free, so the next item only sees what is left.
+     */
+    @Test
+    public void reserveDeductsClaimedSpace() {
+        ItemStack partialStone = mockItemStack(Material.STONE, 60);
+
+        Inventory inventory = mock(Inventory.class);
+        when(inventory.getContents()).thenReturn(new ItemStack[] {partialStone, null});
+
+        ItemStack stone = mockItemStack(Material.STONE, 10);
+        ItemStack dirt = mockItemStack(Material.DIRT, 64);
+        when(partialStone.isSimilar(stone)).thenReturn(true);
+        when(stone.isSimilar(stone)).thenReturn(true);
+
+        HopperCapacity hopperCapacity = HopperCapacity.of(inventory);
+
+        assertEquals(10, hopperCapacity.reserve(stone, 10));
+        assertTrue(hopperCapacity.canFit(stone));
+        assertFalse(hopperCapacity.canFit(dirt));
+        assertEquals(58, hopperCapacity.reserve(stone, 64));
+        assertTrue(hopperCapacity.isFull());
+        assertEquals(0, hopperCapacity.reserve(stone, 1));
+    }
+
+    /**
+     * Creates a mocked {@link ItemStack}.
+     * @param material The {@link Material} of the {@link ItemStack}.
+     * @param amount The amount in the {@link ItemStack}.
+     * @return The mocked {@link ItemStack}.
+     */
+    private static @NotNull ItemStack mockItemStack(@NotNull Material material, int amount) {
+        ItemStack itemStack = mock(ItemStack.class);
+        when(itemStack.getType()).thenReturn(material);
+        when(itemStack.getAmount()).thenReturn(amount);
+        when(itemStack.getMaxStackSize()).thenReturn(64);
+        return itemStack;
+    }
+}
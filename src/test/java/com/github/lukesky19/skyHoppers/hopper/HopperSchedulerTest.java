@@ -0,0 +1,52 @@
+/*
+    SkyHoppers adds upgradable hoppers that can suction items, transfer items wirelessly to linked containers.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyHoppers.hopper;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link HopperScheduler}.
+ */
+public class HopperSchedulerTest {
+    /**
+     * A {@link SkyHopper} with an interval shorter than a tick that is one tick late only handles one interval.
+     */
+    @Test
+    public void subTickIntervalDoesNotCatchUpWithinATick() {
+        assertEquals(1, HopperScheduler.getElapsedIntervals(1000L, 1000L + HopperScheduler.TICK_MS - 1, 10L, 20));
+    }
+
+    /**
+     * Missed ticks are still caught up on when the interval is shorter than a tick.
+     */
+    @Test
+    public void subTickIntervalCatchesUpMissedTicks() {
+        assertEquals(3, HopperScheduler.getElapsedIntervals(1000L, 1000L + (2 * HopperScheduler.TICK_MS), 10L, 20));
+    }
+
+    /**
+     * Intervals longer than a tick are counted as they are, up to the limit.
+     */
+    @Test
+    public void longIntervalCatchesUpToLimit() {
+        assertEquals(3, HopperScheduler.getElapsedIntervals(1000L, 1000L + 2000L, 1000L, 20));
+        assertEquals(2, HopperScheduler.getElapsedIntervals(1000L, 1000L + 5000L, 1000L, 2));
+    }
+}
@@ -0,0 +1,125 @@
+/*
+    SkyHoppers adds upgradable hoppers that can suction items, transfer items wirelessly to linked containers.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyHoppers.hopper;
+
+import com.github.lukesky19.skyHoppers.data.BlockLocation;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link SkyHopperLocationFilter}.
+ */
+public class SkyHopperLocationFilterTest {
+    private static final int SKYHOPPER_COUNT = 40_000;
+
+    private final @NotNull UUID worldId = new UUID(1L, 2L);
+
+    /**
+     * With 40k SkyHoppers loaded, every SkyHopper is found and no other position is reported as one.
+     */
+    @Test
+    public void noFalsePositivesAtFortyThousandSkyHoppers() {
+        SkyHopperLocationFilter filter = new SkyHopperLocationFilter();
+        Set<BlockLocation> added = randomLocations(new Random(19L), SKYHOPPER_COUNT);
+        added.forEach(filter::add);
+
+        for(BlockLocation location : added) {
+            assertTrue(filter.contains(location.worldId(), location.x(), location.y(), location.z()));
+        }
+
+        Random random = new Random(42L);
+        int falsePositives = 0;
+        for(int i = 0; i < 200_000; i++) {
+            BlockLocation location = randomLocation(random);
+            if(added.contains(location)) continue;
+
+            if(filter.contains(location.worldId(), location.x(), location.y(), location.z())) falsePositives++;
+        }
+
+        assertEquals(0, falsePositives);
+    }
+
+    /**
+     * Removing SkyHoppers only removes their positions, including positions that share a probe chain with others.
+     */
+    @Test
+    public void removeKeepsOtherPositions() {
+        SkyHopperLocationFilter filter = new SkyHopperLocationFilter();
+        List<BlockLocation> added = new ArrayList<>(randomLocations(new Random(7L), SKYHOPPER_COUNT));
+        added.forEach(filter::add);
+
+        List<BlockLocation> removed = added.subList(0, added.size() / 2);
+        removed.forEach(filter::remove);
+
+        for(BlockLocation location : removed) {
+            assertFalse(filter.contains(location.worldId(), location.x(), location.y(), location.z()));
+        }
+
+        for(BlockLocation location : added.subList(added.size() / 2, added.size())) {
+            assertTrue(filter.contains(location.worldId(), location.x(), location.y(), location.z()));
+        }
+    }
+
+    /**
+     * Positions are only found in the world they were added in, including the origin and negative coordinates.
+     */
+    @Test
+    public void positionsAreKeyedByWorld() {
+        SkyHopperLocationFilter filter = new SkyHopperLocationFilter();
+        UUID otherWorldId = new UUID(3L, 4L);
+
+        filter.add(new BlockLocation(worldId, 0, 0, 0));
+        filter.add(new BlockLocation(worldId, -29_999_999, -64, 29_999_999));
+
+        assertTrue(filter.contains(worldId, 0, 0, 0));
+        assertTrue(filter.contains(worldId, -29_999_999, -64, 29_999_999));
+        assertFalse(filter.contains(otherWorldId, 0, 0, 0));
+        assertFalse(filter.contains(worldId, 29_999_999, -64, -29_999_999));
+
+        filter.remove(new BlockLocation(worldId, 0, 0, 0));
+        assertFalse(filter.contains(worldId, 0, 0, 0));
+    }
+
+    /**
+     * Creates a number of distinct random {@link BlockLocation}s.
+     * @param random The {@link Random} to use.
+     * @param count The number of {@link BlockLocation}s.
+     * @return A {@link Set} of {@link BlockLocation}s.
+     */
+    private @NotNull Set<BlockLocation> randomLocations(@NotNull Random random, int count) {
+        Set<BlockLocation> locations = new LinkedHashSet<>();
+        while(locations.size() < count) {
+            locations.add(randomLocation(random));
+        }
+
+        return locations;
+    }
+
+    /**
+     * Creates a random {@link BlockLocation} in a 4000 by 4000 block area.
+     * @param random The {@link Random} to use.
+     * @return A {@link BlockLocation}.
+     */
+    private @NotNull BlockLocation randomLocation(@NotNull Random random) {
+        return new BlockLocation(worldId, random.nextInt(4000) - 2000, random.nextInt(384) - 64, random.nextInt(4000) - 2000);
+    }
+}
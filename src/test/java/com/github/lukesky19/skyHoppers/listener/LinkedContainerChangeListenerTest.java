@@ -0,0 +1,104 @@
+/*
+    SkyHoppers adds upgradable hoppers that can suction items, transfer items wirelessly to linked containers.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyHoppers.listener;
+
+import com.github.lukesky19.skyHoppers.SkyHoppers;
+import com.github.lukesky19.skyHoppers.data.BlockLocation;
+import com.github.lukesky19.skyHoppers.database.DatabaseManager;
+import com.github.lukesky19.skyHoppers.hopper.ContainerCapacityCache;
+import com.github.lukesky19.skyHoppers.manager.GUIManager;
+import com.github.lukesky19.skyHoppers.manager.HopperManager;
+import com.github.lukesky19.skyHoppers.manager.LocaleManager;
+import com.github.lukesky19.skyHoppers.manager.SettingsManager;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.event.inventory.InventoryMoveItemEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link LinkedContainerChangeListener}.
+ */
+public class LinkedContainerChangeListenerTest {
+    private final @NotNull UUID worldId = UUID.randomUUID();
+    private World world;
+    private HopperManager hopperManager;
+    private LinkedContainerChangeListener listener;
+
+    /**
+     * Creates a {@link HopperManager} with no linked containers and a {@link LinkedContainerChangeListener} for it.
+     */
+    @BeforeEach
+    public void setUp() {
+        world = mock(World.class);
+        when(world.getUID()).thenReturn(worldId);
+
+        hopperManager = new HopperManager(
+                mock(SkyHoppers.class),
+                mock(SettingsManager.class),
+                mock(LocaleManager.class),
+                mock(DatabaseManager.class),
+                mock(GUIManager.class));
+        listener = new LinkedContainerChangeListener(hopperManager);
+    }
+
+    /**
+     * A move between two containers that aren't linked must not resolve either holder or touch the {@link ContainerCapacityCache}.
+     */
+    @Test
+    public void moveBetweenUnlinkedContainersNeverReachesCapacityCache() {
+        BlockLocation sourceLocation = new BlockLocation(worldId, 0, 64, 0);
+        BlockLocation destinationLocation = new BlockLocation(worldId, 0, 63, 0);
+
+        // Remember both containers as full so an invalidation would be visible
+        ContainerCapacityCache capacityCache = hopperManager.getContainerCapacityCache();
+        capacityCache.markFull(sourceLocation, 0L);
+        capacityCache.markFull(destinationLocation, 0L);
+
+        Inventory source = mockInventory(sourceLocation);
+        Inventory destination = mockInventory(destinationLocation);
+
+        listener.onInventoryMoveItem(new InventoryMoveItemEvent(source, mock(ItemStack.class), destination, true));
+
+        assertTrue(capacityCache.isKnownFull(sourceLocation, 0L));
+        assertTrue(capacityCache.isKnownFull(destinationLocation, 0L));
+        verify(source, never()).getHolder(anyBoolean());
+        verify(source, never()).getHolder();
+        verify(destination, never()).getHolder(anyBoolean());
+        verify(destination, never()).getHolder();
+    }
+
+    /**
+     * Creates a mocked {@link Inventory} at a {@link BlockLocation}.
+     * @param blockLocation The {@link BlockLocation} of the inventory.
+     * @return The mocked {@link Inventory}.
+     */
+    private @NotNull Inventory mockInventory(@NotNull BlockLocation blockLocation) {
+        Inventory inventory = mock(Inventory.class);
+        when(inventory.getLocation()).thenReturn(new Location(world, blockLocation.x(), blockLocation.y(), blockLocation.z()));
+        return inventory;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+    SkyHoppers adds upgradable hoppers that can suction items, transfer items wirelessly to linked containers.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyHoppers.util;
+
+import com.github.lukesky19.skyHoppers.hopper.CompiledFilter;
+import com.github.lukesky19.skyHoppers.hopper.FilterAction;
+import com.github.lukesky19.skyHoppers.hopper.SkyHopper;
+import net.kyori.adventure.text.logger.slf4j.ComponentLogger;
+import org.bukkit.Material;
+import org.bukkit.inventory.BrewerInventory;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link BrewingStandUtils}.
+ */
+public class BrewingStandUtilsTest {
+    /**
+     * Destroying a bottle clears the bottle's own slot and leaves the other slots, including the ingredient slot, alone.
+     */
+    @Test
+    public void destroyClearsMatchedBottleSlot() {
+        for(int bottleSlot = 0; bottleSlot <= 2; bottleSlot++) {
+            ItemStack bottle = mock(ItemStack.class);
+            when(bottle.getType()).thenReturn(Material.POTION);
+            when(bottle.getAmount()).thenReturn(1);
+
+            BrewerInventory brewingStand = mock(BrewerInventory.class);
+            when(brewingStand.getItem(bottleSlot)).thenReturn(bottle);
+            Inventory destination = mock(Inventory.class);
+
+            BrewingStandUtils.transferBrewingStandOutputToSkyHopper(mock(ComponentLogger.class), mockDestroyingSkyHopper(), brewingStand, destination, 1);
+
+            for(int slot = 0; slot <= 3; slot++) {
+                verify(brewingStand, times(slot == bottleSlot ? 1 : 0)).setItem(eq(slot), any());
+            }
+            verifyNoInteractions(destination);
+        }
+    }
+
+    /**
+     * Creates a mocked {@link SkyHopper} whose input filter destroys every item.
+     * @return The mocked {@link SkyHopper}.
+     */
+    private static @NotNull SkyHopper mockDestroyingSkyHopper() {
+        CompiledFilter compiledFilter = mock(CompiledFilter.class);
+        when(compiledFilter.getAction(any())).thenReturn(FilterAction.DESTROY);
+
+        SkyHopper skyHopper = mock(SkyHopper.class);
+        when(skyHopper.getCompiledInputFilter()).thenReturn(compiledFilter);
+        return skyHopper;
+    }
+}
@@ -0,0 +1,273 @@
+/*
+    SkyHoppers adds upgradable hoppers that can suction items, transfer items wirelessly to linked containers.
+    Copyright (C) 2025  lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyHoppers.util;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link InventorySlotIndex}, compared against the per-slot scan it replaced.
+ */
+public class InventorySlotIndexTest {
+    private static final int DESTINATION_SIZE = 54;
+    private static final int SOURCE_SIZE = 27;
+    private static final int WARMUP_ROUNDS = 50;
+    private static final int TIMED_ROUNDS = 200;
+
+    private final @NotNull Map<@NotNull ItemStack, @NotNull Integer> similarityKeys = new IdentityHashMap<>();
+    private long comparisons;
+
+    /**
+     * A bulk transfer through the index ends with the same destination as the per-slot scan,
+     * while comparing each source stack with only the partial stacks of its own {@link Material}, and taking less time.
+     */
+    @Test
+    public void indexMatchesAndOutpacesPerSlotScan() {
+        Inventory scanDestination = createDestination();
+        comparisons = 0;
+        int scanTransferred = scanTransfer(createSource(), scanDestination, Integer.MAX_VALUE);
+        long scanComparisons = comparisons;
+
+        Inventory indexDestination = createDestination();
+        comparisons = 0;
+        int indexTransferred = indexTransfer(createSource(), indexDestination, Integer.MAX_VALUE);
+        long indexComparisons = comparisons;
+
+        assertEquals(scanTransferred, indexTransferred);
+        for(int slot = 0; slot < DESTINATION_SIZE; slot++) {
+            assertEquals(getAmount(scanDestination.getItem(slot)), getAmount(indexDestination.getItem(slot)), "Slot " + slot);
+        }
+        assertEquals(SOURCE_SIZE, indexComparisons);
+        assertTrue(indexComparisons * 10 < scanComparisons, "Index: " + indexComparisons + " comparisons, scan: " + scanComparisons);
+
+        long scanNanos = 0L;
+        long indexNanos = 0L;
+        for(int round = 0; round < WARMUP_ROUNDS + TIMED_ROUNDS; round++) {
+            Inventory scanSource = createSource();
+            Inventory scanTarget = createDestination();
+            Inventory indexSource = createSource();
+            Inventory indexTarget = createDestination();
+
+            long start = System.nanoTime();
+            scanTransfer(scanSource, scanTarget, Integer.MAX_VALUE);
+            long scanEnd = System.nanoTime();
+            indexTransfer(indexSource, indexTarget, Integer.MAX_VALUE);
+            long indexEnd = System.nanoTime();
+
+            if(round >= WARMUP_ROUNDS) {
+                scanNanos += scanEnd - start;
+                indexNanos += indexEnd - scanEnd;
+            }
+        }
+
+        assertTrue(indexNanos < scanNanos, "Index: " + indexNanos + "ns, scan: " + scanNanos + "ns");
+    }
+
+    /**
+     * A single-slot transfer fills a similar partial stack before an earlier empty slot, and reads the destination without copying its contents.
+     */
+    @Test
+    public void singleSlotTransferReadsDestinationWithoutCopying() {
+        ItemStack partialStone = createItemStack(Material.STONE, 1, 60);
+        Inventory destination = createInventory(new ItemStack[] {null, createItemStack(Material.DIRT, 2, 10), partialStone});
+        ItemStack stone = createItemStack(Material.STONE, 1, 10);
+        Inventory source = createInventory(new ItemStack[] {stone});
+
+        int transferred = InventoryUtils.transferInventoryToInventory(source, destination, 0, 8);
+
+        assertEquals(8, transferred);
+        assertEquals(64, partialStone.getAmount());
+        assertEquals(4, getAmount(destination.getItem(0)));
+        assertEquals(10, getAmount(destination.getItem(1)));
+        assertEquals(2, stone.getAmount());
+        verify(destination, never()).getContents();
+    }
+
+    /**
+     * Transfers every source slot through one {@link InventorySlotIndex}, the way the bulk transfers do.
+     * @param sourceInventory The {@link Inventory} to transfer from.
+     * @param destinationInventory The {@link Inventory} to transfer to.
+     * @param amount The amount to transfer.
+     * @return The amount transferred.
+     */
+    private static int indexTransfer(@NotNull Inventory sourceInventory, @NotNull Inventory destinationInventory, int amount) {
+        int amountTransferred = 0;
+        InventorySnapshot source = new InventorySnapshot(sourceInventory);
+        InventorySnapshot destination = new InventorySnapshot(destinationInventory);
+        InventorySlotIndex destinationIndex = new InventorySlotIndex(destination);
+
+        for(int i = 0; i < source.getSize() && amount > 0; i++) {
+            ItemStack sourceItem = source.getItem(i);
+            if(sourceItem == null) continue;
+
+            int transferred = destinationIndex.add(sourceItem, amount);
+            if(transferred > 0) source.setAmount(i, sourceItem.getAmount() - transferred);
+
+            amount -= transferred;
+            amountTransferred += transferred;
+        }
+
+        source.commit();
+        destination.commit();
+
+        return amountTransferred;
+    }
+
+    /**
+     * Transfers every source slot by scanning the destination from the first slot for each one, the way transfers worked before the index.
+     * @param sourceInventory The {@link Inventory} to transfer from.
+     * @param destinationInventory The {@link Inventory} to transfer to.
+     * @param amount The amount to transfer.
+     * @return The amount transferred.
+     */
+    private static int scanTransfer(@NotNull Inventory sourceInventory, @NotNull Inventory destinationInventory, int amount) {
+        int amountTransferred = 0;
+
+        for(int sourceSlot = 0; sourceSlot < sourceInventory.getSize() && amount > 0; sourceSlot++) {
+            for(int i = 0; i < destinationInventory.getSize(); i++) {
+                ItemStack sourceItem = sourceInventory.getItem(sourceSlot);
+                if(sourceItem == null || sourceItem.isEmpty() || amount <= 0) break;
+
+                int amountToAdd = Math.min(sourceItem.getAmount(), amount);
+                ItemStack destItem = destinationInventory.getItem(i);
+                int transferred;
+
+                if(destItem != null && !destItem.isEmpty()) {
+                    if(!destItem.isSimilar(sourceItem)) continue;
+
+                    transferred = Math.min(destItem.getMaxStackSize() - destItem.getAmount(), amountToAdd);
+                    destItem.setAmount(destItem.getAmount() + transferred);
+                } else {
+                    transferred = Math.min(sourceItem.getMaxStackSize(), amountToAdd);
+                    ItemStack newItem = sourceItem.clone();
+                    newItem.setAmount(transferred);
+                    destinationInventory.setItem(i, newItem);
+                }
+
+                sourceItem.setAmount(sourceItem.getAmount() - transferred);
+                amount -= transferred;
+                amountTransferred += transferred;
+            }
+        }
+
+        return amountTransferred;
+    }
+
+    /**
+     * Creates a destination where every slot holds a partial stack of a different {@link Material}, except for the empty last slots.
+     * @return The destination {@link Inventory}.
+     */
+    private @NotNull Inventory createDestination() {
+        ItemStack[] contents = new ItemStack[DESTINATION_SIZE];
+        for(int slot = 0; slot < DESTINATION_SIZE - 2; slot++) {
+            contents[slot] = createItemStack(getMaterial(slot), slot, 32);
+        }
+
+        return createInventory(contents);
+    }
+
+    /**
+     * Creates a source whose stacks match the destination's partial stacks in reverse slot order, so the scan finds each one late.
+     * @return The source {@link Inventory}.
+     */
+    private @NotNull Inventory createSource() {
+        ItemStack[] contents = new ItemStack[SOURCE_SIZE];
+        for(int slot = 0; slot < SOURCE_SIZE; slot++) {
+            int destinationSlot = DESTINATION_SIZE - 3 - slot;
+            contents[slot] = createItemStack(getMaterial(destinationSlot), destinationSlot, 16);
+        }
+
+        return createInventory(contents);
+    }
+
+    /**
+     * Get a distinct {@link Material} for a slot.
+     * @param slot The slot.
+     * @return The {@link Material}.
+     */
+    private static @NotNull Material getMaterial(int slot) {
+        return Material.values()[slot + 1];
+    }
+
+    /**
+     * Get the amount of an {@link ItemStack}, treating a missing one as 0.
+     * @param itemStack The {@link ItemStack} or null.
+     * @return The amount.
+     */
+    private static int getAmount(@Nullable ItemStack itemStack) {
+        return itemStack == null ? 0 : itemStack.getAmount();
+    }
+
+    /**
+     * Creates a mocked {@link Inventory} backed by an array.
+     * @param contents The contents of the {@link Inventory}.
+     * @return The mocked {@link Inventory}.
+     */
+    private static @NotNull Inventory createInventory(@Nullable ItemStack @NotNull [] contents) {
+        Inventory inventory = mock(Inventory.class);
+        when(inventory.getSize()).thenReturn(contents.length);
+        doAnswer(invocation -> contents.clone()).when(inventory).getContents();
+        doAnswer(invocation -> contents[(int) invocation.getArgument(0)]).when(inventory).getItem(anyInt());
+        doAnswer(invocation -> {
+            contents[(int) invocation.getArgument(0)] = invocation.getArgument(1);
+            return null;
+        }).when(inventory).setItem(anyInt(), any());
+        return inventory;
+    }
+
+    /**
+     * Creates a mocked {@link ItemStack} that keeps its amount and is only similar to stacks created with the same key.
+     * Every {@link ItemStack#isSimilar(ItemStack)} call is counted.
+     * @param material The {@link Material} of the {@link ItemStack}.
+     * @param key The similarity key.
+     * @param amount The amount in the {@link ItemStack}.
+     * @return The mocked {@link ItemStack}.
+     */
+    private @NotNull ItemStack createItemStack(@NotNull Material material, int key, int amount) {
+        int[] state = {amount};
+        ItemStack itemStack = mock(ItemStack.class, withSettings().stubOnly());
+        when(itemStack.getType()).thenReturn(material);
+        when(itemStack.getMaxStackSize()).thenReturn(64);
+        doAnswer(invocation -> state[0]).when(itemStack).getAmount();
+        doAnswer(invocation -> state[0] <= 0).when(itemStack).isEmpty();
+        doAnswer(invocation -> {
+            state[0] = invocation.getArgument(0);
+            return null;
+        }).when(itemStack).setAmount(anyInt());
+        doAnswer(invocation -> {
+            comparisons++;
+            Integer otherKey = similarityKeys.get((ItemStack) invocation.getArgument(0));
+            return otherKey != null && otherKey == key;
+        }).when(itemStack).isSimilar(any());
+        doAnswer(invocation -> createItemStack(material, key, state[0])).when(itemStack).clone();
+        similarityKeys.put(itemStack, key);
+        return itemStack;
+    }
+}